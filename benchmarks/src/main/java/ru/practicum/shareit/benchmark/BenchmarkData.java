@@ -0,0 +1,96 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.enums.BookingStatuses;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDtoShort;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.stream.LongStream;
+
+/**
+ * Deterministic fixtures shared by the benchmarks, so that runs on different commits measure the same data.
+ */
+final class BenchmarkData {
+    static final LocalDateTime NOW = LocalDateTime.of(2024, 8, 1, 12, 0);
+
+    private BenchmarkData() {
+    }
+
+    static User user(long id) {
+        return new User(id, "Пользователь " + id, "user" + id + "@yandex.ru");
+    }
+
+    static Item item(long id, User owner) {
+        return new Item(id, "Дрель " + id, "Аккумуляторная дрель с двумя батареями, модель " + id, true, owner,
+                null);
+    }
+
+    static List<Item> items(int count, User owner) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> item(id, owner))
+                .toList();
+    }
+
+    static List<CommentDto> comments(int count, long itemId) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> new CommentDto(id, itemId, "Пользователь " + id,
+                        "Отличная вещь, пользовался неделю, вернул без замечаний " + id, NOW.minusDays(id)))
+                .toList();
+    }
+
+    static List<Booking> bookings(int count, User booker) {
+        User owner = user(booker.getId() + 1);
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> new Booking(id, NOW.plusDays(id), NOW.plusDays(id + 1), item(id, owner), booker,
+                        BookingStatuses.APPROVED))
+                .toList();
+    }
+
+    static List<ItemRequest> requests(int count, User requester) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> new ItemRequest(id, "Нужна дрель на выходные " + id, requester, NOW.minusHours(id)))
+                .toList();
+    }
+
+    static List<ItemDtoShort> answers(int count) {
+        return LongStream.rangeClosed(1, count)
+                .<ItemDtoShort>mapToObj(id -> new ItemDtoShort() {
+                    @Override
+                    public Long getId() {
+                        return id;
+                    }
+
+                    @Override
+                    public String getName() {
+                        return "Дрель " + id;
+                    }
+
+                    @Override
+                    public Long getUserId() {
+                        return id + 1;
+                    }
+                })
+                .toList();
+    }
+
+    /**
+     * Interface stub without a mocking framework, so that only the code under test is measured.
+     * Methods the answer does not handle return null.
+     */
+    static <T> T stub(Class<T> type, BiFunction<String, Object[], Object> answer) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> type.getSimpleName() + "Stub";
+                    default -> answer.apply(method.getName(), args);
+                }));
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-side work of a booker feed page on top of the repository: state dispatch and paging. Ordering and the
+ * mapping into DTOs are done by the keyset projection query, so the repository stub returns a sorted page of DTOs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingServiceBenchmark {
+    @Param({"1", "20", "100"})
+    int pageSize;
+
+    @Param({"ALL", "FUTURE", "WAITING"})
+    String state;
+
+    private BookingServiceImpl bookingService;
+
+    private User booker;
+
+    @Setup
+    public void setUp() {
+        booker = BenchmarkData.user(1);
+        List<BookingDto> page = BenchmarkData.bookings(pageSize, booker).stream()
+                .map(BookingMapper::mapBookingToBookingDto)
+                .toList();
+        UserService userService = BenchmarkData.stub(UserService.class, (method, args) -> booker);
+        BookingRepository bookingRepository = BenchmarkData.stub(BookingRepository.class,
+                (method, args) -> method.startsWith("findAllUserBookings") ? page : null);
+        bookingService = new BookingServiceImpl(null, userService, bookingRepository, null, null);
+    }
+
+    @Benchmark
+    public Collection<BookingDto> findAllBookingsByUser() {
+        return bookingService.findAllBookingsByUser(booker.getId(), state, null, null, pageSize);
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ImprovedItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assembling owner item views, as done by ItemServiceImpl.getAllUserItems.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemMapperBenchmark {
+    @Param({"1", "10", "100"})
+    int items;
+
+    @Param({"0", "10"})
+    int commentsPerItem;
+
+    private List<Item> userItems;
+
+    private List<CommentDto> comments;
+
+    @Setup
+    public void setUp() {
+        userItems = BenchmarkData.items(items, BenchmarkData.user(1));
+        comments = BenchmarkData.comments(commentsPerItem, 1);
+    }
+
+    @Benchmark
+    public List<ImprovedItemDto> mapItemToImprovedItemDto() {
+        return userItems.stream()
+                .map(item -> ItemMapper.mapItemToImprovedItemDto(item, BenchmarkData.NOW.minusDays(1),
+                        BenchmarkData.NOW.plusDays(1), comments))
+                .toList();
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.item.dto.ItemDtoShort;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemRequestMapperBenchmark {
+    @Param({"1", "10", "100"})
+    int requests;
+
+    @Param({"0", "5"})
+    int answersPerRequest;
+
+    private List<ItemRequest> userRequests;
+
+    private List<ItemDtoShort> answers;
+
+    @Setup
+    public void setUp() {
+        userRequests = BenchmarkData.requests(requests, BenchmarkData.user(1));
+        answers = BenchmarkData.answers(answersPerRequest);
+    }
+
+    @Benchmark
+    public void mapRequestToRequestDtoWithAnswers(Blackhole blackhole) {
+        for (ItemRequest request : userRequests) {
+            blackhole.consume(ItemRequestMapper.mapRequestToRequestDtoWithAnswers(request, answers));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.item.dto.ImprovedItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response bodies of GET /items/{itemId} and GET /bookings, written with the same ObjectMapper setup
+ * that Spring MVC uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    @Param({"1", "20", "100"})
+    int size;
+
+    private ObjectWriter writer;
+
+    private ImprovedItemDto item;
+
+    private List<BookingDto> bookings;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+        User user = BenchmarkData.user(1);
+        item = ItemMapper.mapItemToImprovedItemDto(BenchmarkData.item(1, user), BenchmarkData.NOW.minusDays(1),
+                BenchmarkData.NOW.plusDays(1), BenchmarkData.comments(size, 1));
+        bookings = BenchmarkData.bookings(size, user).stream()
+                .map(BookingMapper::mapBookingToBookingDto)
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] writeImprovedItemDto() throws JsonProcessingException {
+        return writer.writeValueAsBytes(item);
+    }
+
+    @Benchmark
+    public byte[] writeBookingDtos() throws JsonProcessingException {
+        return writer.writeValueAsBytes(bookings);
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.user.bloom.UserBloomFilter;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Existence checks for an unknown user id and a free email: the Bloom filter probe against the repository calls it
+ * lets the services skip. The server context runs on in-memory H2, so the repository side is the real Hibernate and
+ * JDBC path without network round trips; against Postgres the gap only grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserExistenceBenchmark {
+    @Param({"1000", "100000"})
+    int users;
+
+    private ConfigurableApplicationContext context;
+
+    private UserRepository userRepository;
+
+    private UserBloomFilter userBloomFilter;
+
+    private long next;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--shareit.search.engine=like",
+                        "--shareit.users.bloom.expected-users=" + users,
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+        List<Object[]> rows = LongStream.rangeClosed(1, users)
+                .mapToObj(BenchmarkData::user)
+                .map(user -> new Object[]{user.getId(), user.getName(), user.getEmail()})
+                .toList();
+        context.getBean(JdbcTemplate.class).batchUpdate("insert into users (id, name, email) values (?, ?, ?)", rows);
+
+        userRepository = context.getBean(UserRepository.class);
+        userBloomFilter = context.getBean(UserBloomFilter.class);
+        userBloomFilter.rebuild();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<User> findByIdUnknown() {
+        return userRepository.findById(unknownId());
+    }
+
+    @Benchmark
+    public boolean filterUnknownId() {
+        return userBloomFilter.mightContainId(unknownId());
+    }
+
+    @Benchmark
+    public Optional<User> findByEmailFree() {
+        return userRepository.findByEmail(freeEmail());
+    }
+
+    @Benchmark
+    public boolean filterFreeEmail() {
+        return userBloomFilter.mightContainEmail(freeEmail());
+    }
+
+    private long unknownId() {
+        return users + 1 + (next++ % users);
+    }
+
+    private String freeEmail() {
+        return "free" + (next++ % users) + "@yandex.ru";
+    }
+}
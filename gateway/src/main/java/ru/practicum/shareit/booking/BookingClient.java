@@ -1,15 +1,22 @@
 package ru.practicum.shareit.booking;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
+import jakarta.servlet.http.HttpServletResponse;
+
 import ru.practicum.shareit.booking.dto.NewRequestBookingDto;
 import ru.practicum.shareit.booking.dto.BookingStates;
 import ru.practicum.shareit.client.BaseClient;
@@ -19,11 +26,12 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
+                        .requestFactory(() -> requestFactory)
                         .build()
         );
     }
@@ -32,6 +40,10 @@ public class BookingClient extends BaseClient {
         return post("", userId, requestDto);
     }
 
+    public ResponseEntity<Object> createAll(long userId, List<NewRequestBookingDto> requestDtos) {
+        return post("/batch", userId, requestDtos);
+    }
+
     public ResponseEntity<Object> approve(Long userId, Long bookingId, Boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
@@ -44,19 +56,42 @@ public class BookingClient extends BaseClient {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> findAllBookingsByUser(Long userId, BookingStates state) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name()
-        );
+    public ResponseEntity<Object> findAllBookingsByUser(Long userId, BookingStates state, LocalDateTime cursorStart,
+                                                        Long cursorId, Integer size) {
+        return get(buildBookingsPath("", cursorStart), userId, buildBookingsParameters(state, cursorStart,
+                cursorId, size));
+    }
 
-        return get("?state={state}", userId, parameters);
+    public ResponseEntity<Object> findAllBookingsByOwner(Long userId, BookingStates state, LocalDateTime cursorStart,
+                                                         Long cursorId, Integer size) {
+        return get(buildBookingsPath("/owner", cursorStart), userId, buildBookingsParameters(state, cursorStart,
+                cursorId, size));
     }
 
-    public ResponseEntity<Object> findAllBookingsByOwner(Long userId, BookingStates state) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name()
-        );
+    public void exportBookingsByUser(long userId, HttpServletResponse response) throws IOException {
+        stream("/export", userId, MediaType.APPLICATION_NDJSON, response);
+    }
+
+    public void exportBookingsByOwner(long userId, HttpServletResponse response) throws IOException {
+        stream("/owner/export", userId, MediaType.APPLICATION_NDJSON, response);
+    }
+
+    private String buildBookingsPath(String path, LocalDateTime cursorStart) {
+        if (cursorStart == null) {
+            return path + "?state={state}&size={size}";
+        }
+        return path + "?state={state}&size={size}&cursorStart={cursorStart}&cursorId={cursorId}";
+    }
 
-        return get("/owner", userId, parameters);
+    private Map<String, Object> buildBookingsParameters(BookingStates state, LocalDateTime cursorStart,
+                                                        Long cursorId, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("size", size);
+        if (cursorStart != null) {
+            parameters.put("cursorStart", cursorStart.toString());
+            parameters.put("cursorId", cursorId != null ? cursorId : 0L);
+        }
+        return parameters;
     }
-}
\ No newline at end of file
+}
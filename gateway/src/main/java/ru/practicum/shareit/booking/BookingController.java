@@ -1,16 +1,25 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import ru.practicum.shareit.booking.dto.NewRequestBookingDto;
 import ru.practicum.shareit.booking.dto.BookingStates;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -27,6 +36,14 @@ public class BookingController {
         return bookingClient.create(userId, requestDto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createAll(@RequestHeader("X-Sharer-User-Id") long userId,
+                                            @RequestBody @Size(min = 1, max = 1000)
+                                            List<@Valid NewRequestBookingDto> requestDtos) {
+        log.info("Creating {} bookings, userId={}", requestDtos.size(), userId);
+        return bookingClient.createAll(userId, requestDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> approve(@RequestHeader("X-Sharer-User-Id") Long userId,
                                           @PathVariable("bookingId") Long bookingId,
@@ -44,19 +61,48 @@ public class BookingController {
 
     @GetMapping
     public ResponseEntity<Object> findAllBookingsByUser(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                              @RequestParam(name = "state", defaultValue = "ALL") String bookingState) {
+                                              @RequestParam(name = "state", defaultValue = "ALL") String bookingState,
+                                              @RequestParam(name = "cursorStart", required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                              LocalDateTime cursorStart,
+                                              @RequestParam(name = "cursorId", required = false) Long cursorId,
+                                              @Positive @Max(100)
+                                              @RequestParam(name = "size", defaultValue = "20") Integer size) {
         BookingStates state = BookingStates.from(bookingState)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + bookingState));
-        log.info("Get booking with state {}, userId={}", bookingState, userId);
-        return bookingClient.findAllBookingsByUser(userId, state);
+        log.info("Get booking with state {}, userId={}, cursorStart={}, cursorId={}, size={}", bookingState, userId,
+                cursorStart, cursorId, size);
+        return bookingClient.findAllBookingsByUser(userId, state, cursorStart, cursorId, size);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> findAllBookingsByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                              @RequestParam(name = "state", defaultValue = "ALL") String bookingState) {
+                                              @RequestParam(name = "state", defaultValue = "ALL") String bookingState,
+                                              @RequestParam(name = "cursorStart", required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                              LocalDateTime cursorStart,
+                                              @RequestParam(name = "cursorId", required = false) Long cursorId,
+                                              @Positive @Max(100)
+                                              @RequestParam(name = "size", defaultValue = "20") Integer size) {
         BookingStates state = BookingStates.from(bookingState)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + bookingState));
-        log.info("Get owner bookings with state {}, userId={}", bookingState, userId);
-        return bookingClient.findAllBookingsByOwner(userId, state);
+        log.info("Get owner bookings with state {}, userId={}, cursorStart={}, cursorId={}, size={}", bookingState,
+                userId, cursorStart, cursorId, size);
+        return bookingClient.findAllBookingsByOwner(userId, state, cursorStart, cursorId, size);
+    }
+
+    // The whole history as NDJSON, relayed from shareit-server row by row
+    @GetMapping("/export")
+    public void exportBookingsByUser(@RequestHeader("X-Sharer-User-Id") long userId, HttpServletResponse response)
+            throws IOException {
+        log.info("Export bookings, userId={}", userId);
+        bookingClient.exportBookingsByUser(userId, response);
+    }
+
+    @GetMapping("/owner/export")
+    public void exportBookingsByOwner(@RequestHeader("X-Sharer-User-Id") long userId, HttpServletResponse response)
+            throws IOException {
+        log.info("Export owner bookings, userId={}", userId);
+        bookingClient.exportBookingsByOwner(userId, response);
     }
-}
\ No newline at end of file
+}
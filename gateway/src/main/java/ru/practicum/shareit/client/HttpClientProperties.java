@@ -0,0 +1,23 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.http-client")
+public class HttpClientProperties {
+    private int maxTotal = 200;
+    private int maxPerRoute = 200;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration socketTimeout = Duration.ofSeconds(10);
+    // How long a request may wait for a free pooled connection
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+    // Must stay below the server's keep-alive timeout (20s by default for Tomcat)
+    private Duration keepAlive = Duration.ofSeconds(15);
+    private Duration idleTimeout = Duration.ofSeconds(30);
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+}
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -10,6 +12,9 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Controller
 @RequestMapping(path = "/items")
 @RequiredArgsConstructor
@@ -25,6 +30,13 @@ public class ItemController {
         return itemClient.create(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                            @RequestBody @Size(min = 1, max = 1000) List<@Valid ItemDto> itemDtos) {
+        log.info("Creating {} items, userId={}", itemDtos.size(), userId);
+        return itemClient.createAll(userId, itemDtos);
+    }
+
     @PostMapping("/{itemId}/comment")
     public ResponseEntity<Object> createComment(@RequestHeader("X-Sharer-User-Id") Long userId,
                                     @Valid @RequestBody CommentDto commentDto,
@@ -58,4 +70,16 @@ public class ItemController {
         log.info("Searching items by text {}", text);
         return itemClient.searchItem(text);
     }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getItemAvailability(@PathVariable("itemId") Long itemId,
+                                                      @RequestParam(name = "from")
+                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      LocalDateTime from,
+                                                      @RequestParam(name = "to")
+                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      LocalDateTime to) {
+        log.info("Getting availability of item {}, from={}, to={}", itemId, from, to);
+        return itemClient.getItemAvailability(itemId, from, to);
+    }
 }
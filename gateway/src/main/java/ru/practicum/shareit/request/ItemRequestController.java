@@ -1,14 +1,19 @@
 package ru.practicum.shareit.request;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.time.LocalDateTime;
+
 @Controller
 @RequestMapping(path = "/requests")
 @RequiredArgsConstructor
@@ -31,9 +36,16 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        log.info("Getting all requests, userId={}", userId);
-        return itemRequestClient.getAllRequests(userId);
+    public ResponseEntity<Object> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                 @RequestParam(name = "cursorCreated", required = false)
+                                                 @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                 LocalDateTime cursorCreated,
+                                                 @RequestParam(name = "cursorId", required = false) Long cursorId,
+                                                 @Positive @Max(100)
+                                                 @RequestParam(name = "size", defaultValue = "20") Integer size) {
+        log.info("Getting all requests, userId={}, cursorCreated={}, cursorId={}, size={}", userId, cursorCreated,
+                cursorId, size);
+        return itemRequestClient.getAllRequests(userId, cursorCreated, cursorId, size);
     }
 
     @GetMapping("/{requestId}")
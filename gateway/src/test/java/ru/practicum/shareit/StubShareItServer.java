@@ -0,0 +1,57 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Stands in for shareit-server: answers every request with the same item after a fixed latency
+public class StubShareItServer implements AutoCloseable {
+    private static final byte[] ITEM = ("{\"id\":1,\"userId\":1,\"name\":\"Дрель\",\"description\":\"Аккумуляторная дрель\"," +
+            "\"available\":true,\"lastBooking\":null,\"nextBooking\":null,\"comments\":[]}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    static {
+        // Headers and body are written separately, without TCP_NODELAY every response waits for a delayed ACK
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        // By default only 200 idle keep-alive connections are kept, the rest are closed under the pooled client
+        System.setProperty("sun.net.httpserver.maxIdleConnections", "10000");
+    }
+
+    private final HttpServer server;
+    // Platform threads, so that the stub itself never reports virtual thread pinning
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    public StubShareItServer(Duration latency) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 4096);
+        server.setExecutor(executor);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, ITEM.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(ITEM);
+            }
+        });
+        server.start();
+    }
+
+    public String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
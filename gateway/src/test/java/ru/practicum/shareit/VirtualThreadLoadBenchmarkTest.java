@@ -0,0 +1,133 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares platform and virtual thread request handling in the gateway at high concurrency.
+ * shareit-server is replaced by a stub with a fixed latency, so the gateway threads mostly wait on I/O.
+ * Run with:
+ * mvn -pl gateway test -Dtest=VirtualThreadLoadBenchmarkTest -Dbenchmark=true
+ * [-Dbenchmark.concurrency=1000 -Dbenchmark.seconds=10 -Dbenchmark.serverLatencyMs=20]
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VirtualThreadLoadBenchmarkTest {
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 1000);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("benchmark.seconds", 10));
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final Duration SERVER_LATENCY = Duration.ofMillis(Long.getLong("benchmark.serverLatencyMs", 20));
+
+    @Test
+    void compareThreadModes() throws Exception {
+        List<String> report = new ArrayList<>();
+        try (StubShareItServer stub = new StubShareItServer(SERVER_LATENCY)) {
+            for (boolean virtualThreads : new boolean[]{false, true}) {
+                Result result = runGateway(stub, virtualThreads);
+                assertTrue(result.requests() > 0);
+                report.add(String.format("%-8s concurrency=%d requests=%d errors=%d throughput=%.0f req/s "
+                                + "p50=%.1f ms p99=%.1f ms max=%.1f ms", virtualThreads ? "virtual" : "platform",
+                        CONCURRENCY, result.requests(), result.errors(), result.throughput(),
+                        result.percentileMillis(0.50), result.percentileMillis(0.99), result.percentileMillis(1.0)));
+            }
+        }
+        report.forEach(line -> log.info("Gateway load benchmark: {}", line));
+    }
+
+    private Result runGateway(StubShareItServer stub, boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItGateway.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--shareit-server.url=" + stub.getUrl(),
+                "--shareit-server.http-client.max-total=" + CONCURRENCY,
+                "--shareit-server.http-client.max-per-route=" + CONCURRENCY,
+                "--logging.level.org.springframework.web.client.RestTemplate=WARN")) {
+            URI uri = URI.create("http://localhost:" + context.getEnvironment().getRequiredProperty(
+                    "local.server.port") + "/items/1");
+
+            load(uri, WARMUP);
+            return load(uri, DURATION);
+        }
+    }
+
+    private Result load(URI uri, Duration duration) throws Exception {
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<long[]> latencies = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(executor)
+                     .build()) {
+            HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+            List<Future<long[]>> workers = new ArrayList<>();
+            for (int i = 0; i < CONCURRENCY; i++) {
+                workers.add(executor.submit(() -> {
+                    long[] samples = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(samples, count);
+                }));
+            }
+            for (Future<long[]> worker : workers) {
+                latencies.add(worker.get());
+            }
+        }
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all, errors.get(), duration);
+    }
+
+    private record Result(long[] sortedLatencies, long errors, Duration duration) {
+        long requests() {
+            return sortedLatencies.length;
+        }
+
+        double throughput() {
+            return sortedLatencies.length / (duration.toMillis() / 1000.0);
+        }
+
+        double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
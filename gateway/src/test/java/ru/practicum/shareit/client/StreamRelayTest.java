@@ -0,0 +1,77 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Exports are relayed from shareit-server as they are, with the status and content type of the server response
+class StreamRelayTest {
+    private static final String NDJSON = "{\"id\":1}\n{\"id\":2}\n";
+    private static final String ERROR = "{\"error\":\"Искомый объект не найден.\"}";
+
+    private final List<String> acceptHeaders = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private BaseClient client;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/export", exchange -> {
+            acceptHeaders.add(exchange.getRequestHeaders().getFirst("Accept"));
+            boolean known = "1".equals(exchange.getRequestHeaders().getFirst("X-Sharer-User-Id"));
+            byte[] body = (known ? NDJSON : ERROR).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", known ? "application/x-ndjson" : "application/json");
+            // Unknown length, the body goes out in chunks as the server writes it
+            exchange.sendResponseHeaders(known ? 200 : 404, 0);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        server.start();
+        client = new BaseClient(new RestTemplateBuilder()
+                .rootUri("http://localhost:" + server.getAddress().getPort())
+                .build());
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void exportIsRelayedWithServerContentTypeTest() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        client.stream("/export", 1, MediaType.APPLICATION_NDJSON, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("application/x-ndjson", response.getContentType());
+        assertEquals(NDJSON, response.getContentAsString(StandardCharsets.UTF_8));
+        assertTrue(acceptHeaders.getFirst().startsWith("application/x-ndjson"));
+    }
+
+    @Test
+    void serverErrorIsRelayedWithItsStatusTest() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        client.stream("/export", 2, MediaType.APPLICATION_NDJSON, response);
+
+        assertEquals(404, response.getStatus());
+        assertEquals("application/json", response.getContentType());
+        assertEquals(ERROR, response.getContentAsString(StandardCharsets.UTF_8));
+    }
+}
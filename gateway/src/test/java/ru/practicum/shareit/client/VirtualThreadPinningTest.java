@@ -0,0 +1,71 @@
+package ru.practicum.shareit.client;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.StubShareItServer;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Outbound calls must not pin virtual threads, even while they wait for a pooled connection
+class VirtualThreadPinningTest {
+    private static final int TASKS = 100;
+    private static final int CALLS_PER_TASK = 5;
+
+    @Test
+    void httpClientPathDoesNotPinVirtualThreadsTest() throws Exception {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setMaxTotal(4);
+        properties.setMaxPerRoute(4);
+        properties.setConnectionRequestTimeout(Duration.ofSeconds(30));
+        HttpClientConfig config = new HttpClientConfig();
+
+        List<RecordedEvent> pinnedEvents;
+        try (StubShareItServer stub = new StubShareItServer(Duration.ofMillis(5));
+             Recording recording = new Recording()) {
+            BaseClient client = new BaseClient(new RestTemplateBuilder()
+                    .rootUri(stub.getUrl())
+                    .requestFactory(() -> config.shareItServerRequestFactory(config.shareItServerHttpClient(
+                            config.shareItServerConnectionManager(properties), properties)))
+                    .build());
+
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = IntStream.range(0, TASKS)
+                        .<Future<?>>mapToObj(i -> executor.submit(() -> {
+                            for (int call = 0; call < CALLS_PER_TASK; call++) {
+                                ResponseEntity<Object> response = client.get("/items/1");
+                                assertTrue(response.getStatusCode().is2xxSuccessful());
+                            }
+                            return null;
+                        }))
+                        .toList();
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+
+            recording.stop();
+            Path file = Files.createTempFile("virtual-thread-pinning", ".jfr");
+            recording.dump(file);
+            pinnedEvents = RecordingFile.readAllEvents(file);
+            Files.deleteIfExists(file);
+        }
+
+        assertTrue(pinnedEvents.isEmpty(), () -> "Virtual threads were pinned: " + pinnedEvents);
+    }
+}
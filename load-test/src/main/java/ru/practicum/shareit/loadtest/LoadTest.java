@@ -0,0 +1,178 @@
+package ru.practicum.shareit.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end load test of the real request path: gateway, BaseClient, server controllers, JPA and H2.
+ * Starts the server on an in-memory H2 database seeded by {@link SeedData} and the gateway in front of it,
+ * replays {@link TrafficMix} with a fixed number of concurrent clients and prints latency percentiles
+ * per endpoint. Full HDR percentile distributions are written next to the report as *.hgrm files.
+ * <p>
+ * Without loadtest.rate every client sends its next request as soon as the previous one is answered.
+ * With loadtest.rate the clients keep the given total rate and latency is counted from the planned send time,
+ * so a stalled server is not hidden by the clients waiting for it (coordinated omission).
+ */
+public final class LoadTest {
+    private static final String SUMMARY_FORMAT = "%-28s %9s %7s %9s %9s %9s %9s %9s %9s%n";
+    private static final String ROW_FORMAT = "%-28s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n";
+    // The seed runs after the server's own migrations, whatever versions they reach
+    private static final String SEED_MIGRATION = "V1000__load_test_seed.sql";
+    private static final String MIGRATIONS = "classpath:db/migration/common,classpath:db/migration/{vendor}";
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        Files.createDirectories(settings.outputDir());
+        SeedData seedData = new SeedData(settings);
+        Path seed = seedData.write(settings.outputDir().resolve("seed").resolve(SEED_MIGRATION).toAbsolutePath());
+        System.out.printf("Seed: %d users, %d items, %d bookings, %d comments, %d requests%n", settings.users(),
+                seedData.itemCount(), seedData.bookingCount(),
+                seedData.bookingCount() > 0 ? seedData.itemCount() * settings.commentsPerItem() : 0,
+                settings.users() * settings.requestsPerUser());
+
+        try (ServiceProcess server = ServiceProcess.start("server", settings.serverJar(), settings.jvmArgs(),
+                settings.outputDir(), List.of(
+                        "--spring.datasource.url=jdbc:h2:mem:shareit;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.flyway.locations=" + MIGRATIONS + ",filesystem:" + seed.getParent(),
+                        "--shareit.search.engine=like",
+                        "--spring.threads.virtual.enabled=" + settings.virtualThreads(),
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"));
+             ServiceProcess gateway = ServiceProcess.start("gateway", settings.gatewayJar(), settings.jvmArgs(),
+                     settings.outputDir(), List.of(
+                             "--shareit-server.url=" + server.url(),
+                             "--spring.threads.virtual.enabled=" + settings.virtualThreads(),
+                             "--logging.level.org.springframework.web.client.RestTemplate=WARN"))) {
+            TrafficMix mix = new TrafficMix(gateway.url(), settings.users(), settings.mix());
+
+            run(mix, settings, settings.warmup());
+            Map<String, Result> results = run(mix, settings, settings.duration());
+            report(results, settings);
+        }
+    }
+
+    private static Map<String, Result> run(TrafficMix mix, LoadTestSettings settings, Duration duration)
+            throws Exception {
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + duration.toNanos();
+        long interval = settings.rate() > 0 ? TimeUnit.SECONDS.toNanos(settings.concurrency()) / settings.rate() : 0;
+        Map<String, Result> merged = new TreeMap<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(executor)
+                     .build()) {
+            List<Future<Map<String, Result>>> workers = new ArrayList<>();
+            for (int i = 0; i < settings.concurrency(); i++) {
+                long offset = interval * i / settings.concurrency();
+                workers.add(executor.submit(() -> {
+                    Map<String, Result> results = new HashMap<>();
+                    long planned = startedAt + offset;
+                    while (planned < deadline) {
+                        if (interval > 0) {
+                            LockSupport.parkNanos(planned - System.nanoTime());
+                        } else {
+                            planned = System.nanoTime();
+                        }
+                        TrafficMix.Call call = mix.next();
+                        Result result = results.computeIfAbsent(call.endpoint(), endpoint -> new Result());
+                        try {
+                            HttpResponse<Void> response = client.send(call.request(),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() / 100 == 2) {
+                                result.latency.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - planned));
+                            } else {
+                                result.errors++;
+                            }
+                        } catch (IOException e) {
+                            result.errors++;
+                        }
+                        planned += interval;
+                    }
+                    return results;
+                }));
+            }
+            for (Future<Map<String, Result>> worker : workers) {
+                worker.get().forEach((endpoint, result) -> merged.merge(endpoint, result, Result::add));
+            }
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        merged.values().forEach(result -> result.elapsedNanos = elapsed);
+        return merged;
+    }
+
+    private static void report(Map<String, Result> results, LoadTestSettings settings) throws IOException {
+        Result total = new Result();
+        results.values().forEach(total::add);
+        total.elapsedNanos = results.values().stream().mapToLong(result -> result.elapsedNanos).max().orElse(1);
+
+        Path reportFile = settings.outputDir().resolve("report.txt");
+        try (PrintStream report = new PrintStream(Files.newOutputStream(reportFile), true, StandardCharsets.UTF_8)) {
+            for (PrintStream out : List.of(System.out, report)) {
+                out.println("Load: " + settings);
+                out.printf(SUMMARY_FORMAT, "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms",
+                        "p99.9 ms", "max ms");
+                results.forEach((endpoint, result) -> result.print(out, endpoint));
+                total.print(out, "total");
+            }
+        }
+        for (Map.Entry<String, Result> entry : results.entrySet()) {
+            Path file = settings.outputDir().resolve(entry.getKey().replaceAll("[^A-Za-z0-9]+", "_")
+                    .replaceAll("^_|_$", "") + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file), true, StandardCharsets.UTF_8)) {
+                entry.getValue().latency.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        System.out.println("Report and percentile distributions: " + settings.outputDir().toAbsolutePath());
+    }
+
+    /**
+     * Latencies of successful calls in microseconds and the number of failed ones.
+     */
+    private static final class Result {
+        private final Histogram latency = new Histogram(3);
+        private long errors;
+        private long elapsedNanos;
+
+        private Result add(Result other) {
+            latency.add(other.latency);
+            errors += other.errors;
+            return this;
+        }
+
+        private void print(PrintStream out, String endpoint) {
+            out.printf(ROW_FORMAT, endpoint, latency.getTotalCount(), errors,
+                    latency.getTotalCount() / (elapsedNanos / 1e9), percentile(50), percentile(90), percentile(99),
+                    percentile(99.9), latency.getMaxValue() / 1000.0);
+        }
+
+        private double percentile(double percentile) {
+            return latency.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+}
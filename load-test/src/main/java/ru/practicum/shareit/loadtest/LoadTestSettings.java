@@ -0,0 +1,66 @@
+package ru.practicum.shareit.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test parameters, all of them are read from -Dloadtest.* system properties.
+ */
+record LoadTestSettings(Path serverJar,
+                        Path gatewayJar,
+                        Path outputDir,
+                        String jvmArgs,
+                        boolean virtualThreads,
+                        int users,
+                        int itemsPerUser,
+                        int bookingsPerItem,
+                        int commentsPerItem,
+                        int requestsPerUser,
+                        int concurrency,
+                        int rate,
+                        Duration warmup,
+                        Duration duration,
+                        Map<String, Integer> mix) {
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Path.of(System.getProperty("loadtest.serverJar", "server/target/shareit-server-0.0.1-SNAPSHOT.jar")),
+                Path.of(System.getProperty("loadtest.gatewayJar",
+                        "gateway/target/shareit-gateway-0.0.1-SNAPSHOT.jar")),
+                Path.of(System.getProperty("loadtest.output", "load-test/target/results")),
+                System.getProperty("loadtest.jvmArgs", "-Xmx512m"),
+                Boolean.getBoolean("loadtest.virtualThreads"),
+                Integer.getInteger("loadtest.users", 200),
+                Integer.getInteger("loadtest.itemsPerUser", 5),
+                Integer.getInteger("loadtest.bookingsPerItem", 10),
+                Integer.getInteger("loadtest.commentsPerItem", 3),
+                Integer.getInteger("loadtest.requestsPerUser", 2),
+                Integer.getInteger("loadtest.concurrency", 32),
+                Integer.getInteger("loadtest.rate", 0),
+                Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 10)),
+                Duration.ofSeconds(Long.getLong("loadtest.seconds", 30)),
+                parseMix(System.getProperty("loadtest.mix", "items:30,search:20,bookings:35,requests:15")));
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid loadtest.mix entry: " + entry);
+            }
+            weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("users=%d itemsPerUser=%d bookingsPerItem=%d commentsPerItem=%d requestsPerUser=%d "
+                        + "concurrency=%d rate=%s warmup=%ds duration=%ds virtualThreads=%s mix=%s", users,
+                itemsPerUser, bookingsPerItem, commentsPerItem, requestsPerUser, concurrency,
+                rate > 0 ? rate + "/s" : "unlimited", warmup.toSeconds(), duration.toSeconds(), virtualThreads, mix);
+    }
+}
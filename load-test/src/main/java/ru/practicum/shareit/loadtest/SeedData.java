@@ -0,0 +1,167 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates a deterministic SQL data script for the server, which Flyway applies as the last migration.
+ * Ids are written explicitly: user N has id N, item N has id N and so on. The server's repeatable migration then
+ * moves the id sequences past them.
+ * Every item gets past, current and future bookings of other users that do not overlap each other,
+ * comments are written by the bookers of its past bookings.
+ */
+final class SeedData {
+    static final List<String> WORDS = List.of("дрель", "отвертка", "палатка", "велосипед", "лестница", "пила",
+            "перфоратор", "спальник", "самокат", "гитара", "проектор", "палки", "байдарка", "мангал", "коньки",
+            "тележка");
+
+    private static final int ROWS_PER_STATEMENT = 500;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final LoadTestSettings settings;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    SeedData(LoadTestSettings settings) {
+        this.settings = settings;
+    }
+
+    Path write(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            insert(writer, "users (id, name, email)", users());
+            insert(writer, "requests (id, description, user_id, created)", requests());
+            insert(writer, "items (id, user_id, name, description, available, request_id)", items());
+            insert(writer, "bookings (id, start, end_of_booking, item_id, user_id, status)", bookings());
+            insert(writer, "comments (id, item_id, author_id, text, created)", comments());
+        }
+        return file;
+    }
+
+    int itemCount() {
+        return settings.users() * settings.itemsPerUser();
+    }
+
+    int bookingCount() {
+        return settings.users() > 1 ? itemCount() * settings.bookingsPerItem() : 0;
+    }
+
+    private List<String> users() {
+        List<String> rows = new ArrayList<>();
+        for (int user = 1; user <= settings.users(); user++) {
+            rows.add(String.format("(%d, 'user%d', 'user%d@shareit.test')", user, user, user));
+        }
+        return rows;
+    }
+
+    private List<String> requests() {
+        List<String> rows = new ArrayList<>();
+        int index = 0;
+        for (int user = 1; user <= settings.users(); user++) {
+            for (int request = 0; request < settings.requestsPerUser(); request++) {
+                rows.add(String.format("(%d, 'Нужна %s на выходные', %d, %s)", index + 1, word(index), user,
+                        timestamp(now.minusMinutes(index))));
+                index++;
+            }
+        }
+        return rows;
+    }
+
+    private List<String> items() {
+        int requestCount = settings.users() * settings.requestsPerUser();
+        List<String> rows = new ArrayList<>();
+        int index = 0;
+        for (int user = 1; user <= settings.users(); user++) {
+            for (int item = 0; item < settings.itemsPerUser(); item++) {
+                String requestId = requestCount > 0 && index % 4 == 0 ? String.valueOf(index / 4 % requestCount + 1)
+                        : "NULL";
+                rows.add(String.format("(%d, %d, '%s %d', 'Исправная %s, можно забрать в любой день', %s, %s)",
+                        index + 1, user, word(index), index + 1, word(index), index % 10 != 0, requestId));
+                index++;
+            }
+        }
+        return rows;
+    }
+
+    private List<String> bookings() {
+        List<String> rows = new ArrayList<>();
+        if (settings.users() < 2) {
+            return rows;
+        }
+        for (int item = 1; item <= itemCount(); item++) {
+            for (int booking = 0; booking < settings.bookingsPerItem(); booking++) {
+                LocalDateTime start = bookingStart(booking);
+                rows.add(String.format("(%d, %s, %s, %d, %d, '%s')", rows.size() + 1, timestamp(start),
+                        timestamp(start.plusDays(2)), item, booker(item, booking), status(booking)));
+            }
+        }
+        return rows;
+    }
+
+    private List<String> comments() {
+        List<String> rows = new ArrayList<>();
+        int pastBookings = settings.bookingsPerItem() / 2;
+        if (settings.users() < 2 || pastBookings == 0) {
+            return rows;
+        }
+        for (int item = 1; item <= itemCount(); item++) {
+            for (int comment = 0; comment < settings.commentsPerItem(); comment++) {
+                int booking = comment % pastBookings;
+                rows.add(String.format("(%d, %d, %d, 'Все отлично, %s в порядке', %s)", rows.size() + 1, item,
+                        booker(item, booking), word(item + comment),
+                        timestamp(bookingStart(booking).plusDays(2).plusHours(1))));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Bookings take two days of three-day slots, the one in the middle spans the current moment.
+     */
+    private LocalDateTime bookingStart(int booking) {
+        return now.plusDays(3L * (booking - settings.bookingsPerItem() / 2)).minusDays(1);
+    }
+
+    private String status(int booking) {
+        int current = settings.bookingsPerItem() / 2;
+        if (booking < current) {
+            return booking % 5 == 4 ? "REJECTED" : "APPROVED";
+        }
+        if (booking == current) {
+            return "APPROVED";
+        }
+        return switch (booking % 3) {
+            case 0 -> "WAITING";
+            case 1 -> "APPROVED";
+            default -> "REJECTED";
+        };
+    }
+
+    private int booker(int item, int booking) {
+        int owner = (item - 1) / settings.itemsPerUser();
+        return (owner + 1 + booking % (settings.users() - 1)) % settings.users() + 1;
+    }
+
+    private static String word(int index) {
+        return WORDS.get(index % WORDS.size());
+    }
+
+    private static String timestamp(LocalDateTime dateTime) {
+        return "TIMESTAMP '" + TIMESTAMP.format(dateTime) + "'";
+    }
+
+    private static void insert(BufferedWriter writer, String table, List<String> rows) throws IOException {
+        for (int from = 0; from < rows.size(); from += ROWS_PER_STATEMENT) {
+            writer.write("INSERT INTO " + table + " VALUES\n");
+            writer.write(String.join(",\n", rows.subList(from, Math.min(from + ROWS_PER_STATEMENT, rows.size()))));
+            writer.write(";\n");
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Weighted choice of gateway calls over the seeded data. Mix keys:
+ * items - owner's item list, search - text search, bookings - booker's feed in a random state,
+ * requests - other users' item requests.
+ */
+final class TrafficMix {
+    private static final List<String> BOOKING_STATES = List.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING",
+            "REJECTED");
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final String gatewayUrl;
+    private final int users;
+    private final String[] keys;
+    private final int[] cumulativeWeights;
+
+    TrafficMix(String gatewayUrl, int users, Map<String, Integer> weights) {
+        this.gatewayUrl = gatewayUrl;
+        this.users = users;
+        this.keys = weights.keySet().toArray(String[]::new);
+        this.cumulativeWeights = new int[keys.length];
+        int total = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (!List.of("items", "search", "bookings", "requests").contains(keys[i])) {
+                throw new IllegalArgumentException("Unknown loadtest.mix key: " + keys[i]);
+            }
+            total += weights.get(keys[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("loadtest.mix has no positive weights");
+        }
+    }
+
+    Call next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int point = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int index = 0;
+        while (point >= cumulativeWeights[index]) {
+            index++;
+        }
+        long userId = random.nextInt(users) + 1;
+        return switch (keys[index]) {
+            case "items" -> new Call("GET /items", get("/items", userId));
+            case "search" -> {
+                String word = SeedData.WORDS.get(random.nextInt(SeedData.WORDS.size()));
+                yield new Call("GET /items/search",
+                        get("/items/search?text=" + URLEncoder.encode(word, StandardCharsets.UTF_8), userId));
+            }
+            case "bookings" -> {
+                String state = BOOKING_STATES.get(random.nextInt(BOOKING_STATES.size()));
+                yield new Call("GET /bookings?state=" + state, get("/bookings?state=" + state, userId));
+            }
+            default -> new Call("GET /requests/all", get("/requests/all", userId));
+        };
+    }
+
+    private HttpRequest get(String path, long userId) {
+        return HttpRequest.newBuilder(URI.create(gatewayUrl + path))
+                .header(USER_HEADER, String.valueOf(userId))
+                .GET()
+                .build();
+    }
+
+    record Call(String endpoint, HttpRequest request) {
+    }
+}
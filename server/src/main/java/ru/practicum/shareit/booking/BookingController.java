@@ -4,12 +4,19 @@ import jakarta.validation.Valid;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.NewRequestBookingDto;
+import ru.practicum.shareit.booking.export.BookingExportService;
 import ru.practicum.shareit.booking.service.BookingService;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
@@ -17,6 +24,7 @@ import java.util.Collection;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class BookingController {
     BookingService bookingService;
+    BookingExportService bookingExportService;
 
     @PostMapping
     public BookingDto create(@RequestHeader("X-Sharer-User-Id") Long userId,
@@ -24,6 +32,12 @@ public class BookingController {
         return bookingService.create(userId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public Collection<BookingDto> createAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                            @RequestBody List<NewRequestBookingDto> bookingDtos) {
+        return bookingService.createAll(userId, bookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto approve(@RequestHeader("X-Sharer-User-Id") Long userId,
                               @PathVariable("bookingId") Long bookingId,
@@ -39,13 +53,38 @@ public class BookingController {
 
     @GetMapping
     public Collection<BookingDto> findAllBookingsByUser(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @RequestParam(name = "state", defaultValue = "ALL") String bookingState) {
-        return bookingService.findAllBookingsByUser(userId, bookingState);
+                                             @RequestParam(name = "state", defaultValue = "ALL") String bookingState,
+                                             @RequestParam(name = "cursorStart", required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                             LocalDateTime cursorStart,
+                                             @RequestParam(name = "cursorId", required = false) Long cursorId,
+                                             @RequestParam(name = "size", defaultValue = "20") int size) {
+        return bookingService.findAllBookingsByUser(userId, bookingState, cursorStart, cursorId, size);
     }
 
     @GetMapping("/owner")
     public Collection<BookingDto> findAllBookingsByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                              @RequestParam(name = "state", defaultValue = "ALL") String bookingState) {
-        return bookingService.findAllBookingsByOwner(userId, bookingState);
+                                              @RequestParam(name = "state", defaultValue = "ALL") String bookingState,
+                                              @RequestParam(name = "cursorStart", required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                              LocalDateTime cursorStart,
+                                              @RequestParam(name = "cursorId", required = false) Long cursorId,
+                                              @RequestParam(name = "size", defaultValue = "20") int size) {
+        return bookingService.findAllBookingsByOwner(userId, bookingState, cursorStart, cursorId, size);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBookingsByUser(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bookingExportService.exportBookingsByUser(userId));
+    }
+
+    @GetMapping(value = "/owner/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBookingsByOwner(
+            @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bookingExportService.exportBookingsByOwner(userId));
     }
 }
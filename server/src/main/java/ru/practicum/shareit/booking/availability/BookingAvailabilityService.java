@@ -0,0 +1,231 @@
+package ru.practicum.shareit.booking.availability;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.enums.BookingStatuses;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+// Календари занятости вещей по ожидающим и подтвержденным бронированиям, которые еще не закончились.
+// Календарь загружается из базы при первом обращении к вещи и дальше обновляется вместе с записью бронирований.
+// Календари вещей, которые давно не бронировали, вытесняются и при следующем обращении загружаются заново.
+@Component
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BookingAvailabilityService {
+    private static final List<BookingStatuses> ACTIVE_STATUSES = List.of(BookingStatuses.WAITING,
+            BookingStatuses.APPROVED);
+
+    BookingRepository bookingRepository;
+    // Календарь загружается потоком, который первым к нему обратился, остальные ждут его future. Запрос к базе
+    // идет вне блокировки карты кэша, поэтому не закрепляет виртуальный поток и не задерживает загрузку других вещей
+    AsyncCache<Long, ItemCalendar> calendars;
+    // Вытесненные календари с незавершенными транзакциями: в базе их изменений еще нет, поэтому календарь
+    // возвращается в кэш как есть, а не загружается заново
+    Map<Long, ItemCalendar> evictedPinned = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BookingAvailabilityService(BookingRepository bookingRepository,
+                                      @Value("${shareit.availability.calendars.maximum-size:10000}") long maximumSize,
+                                      @Value("${shareit.availability.calendars.expire-after-access:1h}")
+                                      Duration expireAfterAccess) {
+        this(bookingRepository, maximumSize, expireAfterAccess, Ticker.systemTicker());
+    }
+
+    BookingAvailabilityService(BookingRepository bookingRepository, long maximumSize, Duration expireAfterAccess,
+                               Ticker ticker) {
+        this.bookingRepository = bookingRepository;
+        this.calendars = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .ticker(ticker)
+                .evictionListener((Long itemId, ItemCalendar calendar, RemovalCause cause) -> {
+                    if (calendar != null && calendar.isPinned()) {
+                        evictedPinned.put(itemId, calendar);
+                    }
+                })
+                .buildAsync();
+    }
+
+    public Booking reserve(Long itemId, LocalDateTime start, LocalDateTime end, Supplier<Booking> bookingSaver) {
+        ItemCalendar calendar = pin(itemId);
+        try {
+            return calendar.locked(() -> {
+                calendar.removeEndedBefore(LocalDateTime.now());
+                checkNotOverlapping(calendar, start, end, null);
+
+                Booking booking = bookingSaver.get();
+                calendar.add(BookingInterval.of(booking));
+                afterRollback(() -> calendar.locked(() -> {
+                    calendar.remove(booking.getId());
+                    return null;
+                }));
+                return booking;
+            });
+        } finally {
+            unpinAfterCompletion(itemId, calendar);
+        }
+    }
+
+    // При откате интервал бронирования возвращается к прежнему: ожидающая бронь остается, отклоненная удаляется
+    public void confirm(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        ItemCalendar calendar = pin(itemId);
+        try {
+            calendar.locked(() -> {
+                checkNotOverlapping(calendar, booking.getStart(), booking.getEnd(), booking.getId());
+                BookingInterval previous = calendar.find(booking.getId());
+                calendar.add(BookingInterval.of(booking));
+                afterRollback(() -> calendar.locked(() -> {
+                    if (previous == null) {
+                        calendar.remove(booking.getId());
+                    } else {
+                        calendar.add(previous);
+                    }
+                    return null;
+                }));
+                return null;
+            });
+        } finally {
+            unpinAfterCompletion(itemId, calendar);
+        }
+    }
+
+    public void release(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        ItemCalendar calendar = pin(itemId);
+        afterCommit(() -> calendar.locked(() -> {
+            calendar.remove(booking.getId());
+            return null;
+        }));
+        unpinAfterCompletion(itemId, calendar);
+    }
+
+    public List<BookingInterval> findBusyIntervals(Long itemId, LocalDateTime from, LocalDateTime to) {
+        ItemCalendar calendar = getCalendar(itemId);
+        return calendar.locked(() -> calendar.between(from, to));
+    }
+
+    public ItemCalendar getCalendar(Long itemId) {
+        CompletableFuture<ItemCalendar> loading = new CompletableFuture<>();
+        // Вытеснение и добавление одной вещи атомарны в карте кэша, поэтому вытесненный закрепленный календарь
+        // к этому моменту уже лежит в evictedPinned
+        CompletableFuture<ItemCalendar> calendar = calendars.asMap().computeIfAbsent(itemId, id -> {
+            ItemCalendar pinned = evictedPinned.remove(id);
+            return pinned != null ? CompletableFuture.completedFuture(pinned) : loading;
+        });
+        if (calendar == loading) {
+            try {
+                loading.complete(loadCalendar(itemId));
+            } catch (RuntimeException e) {
+                // Future, завершенный с ошибкой, кэш удаляет сам, следующее обращение загрузит календарь заново
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return calendar.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    // Закончившиеся бронирования в календарь не попадают
+    private ItemCalendar loadCalendar(Long itemId) {
+        log.debug("Загружаем календарь бронирований вещи с id {}.", itemId);
+        List<BookingInterval> bookings = bookingRepository.findAllByItemIdAndStatusInAndEndAfter(itemId,
+                        ACTIVE_STATUSES, LocalDateTime.now()).stream()
+                .map(BookingInterval::of)
+                .toList();
+        return new ItemCalendar(bookings);
+    }
+
+    // Закрепленный календарь не теряется при вытеснении, пока транзакция, изменившая его, не завершится.
+    // Календарь, вытесненный до закрепления, уже не используется, поэтому берется следующий.
+    private ItemCalendar pin(Long itemId) {
+        while (true) {
+            ItemCalendar calendar = getCalendar(itemId);
+            calendar.pin();
+            CompletableFuture<ItemCalendar> current = calendars.getIfPresent(itemId);
+            if (current != null && current.state() == Future.State.SUCCESS && calendar == current.resultNow()
+                    || calendar == evictedPinned.get(itemId)) {
+                return calendar;
+            }
+            calendar.unpin();
+        }
+    }
+
+    private void unpinAfterCompletion(Long itemId, ItemCalendar calendar) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            unpin(itemId, calendar);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                unpin(itemId, calendar);
+            }
+        });
+    }
+
+    private void unpin(Long itemId, ItemCalendar calendar) {
+        calendar.unpin();
+        evictedPinned.computeIfPresent(itemId, (id, evicted) -> evicted == calendar && !evicted.isPinned()
+                ? null : evicted);
+    }
+
+    private void checkNotOverlapping(ItemCalendar calendar, LocalDateTime start, LocalDateTime end,
+                                     Long excludedBookingId) {
+        if (calendar.overlaps(start, end, excludedBookingId)) {
+            throw new ValidationException("Предмет уже забронирован на указанные даты.");
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
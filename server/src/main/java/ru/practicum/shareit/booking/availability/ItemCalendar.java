@@ -0,0 +1,123 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Бронирования одной вещи, упорядоченные по дате начала.
+// Пока интервалы не пересекаются, проверка пересечения требует одного поиска в дереве - O(log n).
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ItemCalendar {
+    private static final Comparator<BookingInterval> ORDER = Comparator.comparing(BookingInterval::getStart)
+            .thenComparing(BookingInterval::getBookingId);
+
+    NavigableSet<BookingInterval> intervals = new TreeSet<>(ORDER);
+    Map<Long, BookingInterval> intervalsById = new HashMap<>();
+    ReentrantLock lock = new ReentrantLock();
+    // Незавершенные транзакции, которые изменили календарь
+    AtomicInteger pins = new AtomicInteger();
+    // Сбрасывается, если в базе уже были пересекающиеся бронирования
+    @NonFinal
+    boolean disjoint = true;
+
+    public ItemCalendar(Collection<BookingInterval> bookings) {
+        bookings.forEach(this::add);
+    }
+
+    public <T> T locked(Supplier<T> action) {
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean overlaps(LocalDateTime start, LocalDateTime end, Long excludedBookingId) {
+        if (!disjoint) {
+            return intervals.headSet(probe(end), false).stream()
+                    .anyMatch(interval -> !interval.getBookingId().equals(excludedBookingId)
+                            && interval.overlaps(start, end));
+        }
+
+        // Интервалы не пересекаются, поэтому достаточно проверить ближайшие к концу запрошенного интервала
+        for (BookingInterval interval = intervals.lower(probe(end)); interval != null;
+             interval = intervals.lower(interval)) {
+            if (!interval.getBookingId().equals(excludedBookingId)) {
+                return interval.overlaps(start, end);
+            }
+        }
+        return false;
+    }
+
+    public void add(BookingInterval interval) {
+        remove(interval.getBookingId());
+        if (overlaps(interval.getStart(), interval.getEnd(), interval.getBookingId())) {
+            disjoint = false;
+        }
+        intervals.add(interval);
+        intervalsById.put(interval.getBookingId(), interval);
+    }
+
+    public BookingInterval find(Long bookingId) {
+        return intervalsById.get(bookingId);
+    }
+
+    public void remove(Long bookingId) {
+        BookingInterval interval = intervalsById.remove(bookingId);
+        if (interval != null) {
+            intervals.remove(interval);
+        }
+    }
+
+    public List<BookingInterval> between(LocalDateTime from, LocalDateTime to) {
+        // Для непересекающихся интервалов раньше from может начинаться только один подходящий интервал
+        BookingInterval first = disjoint ? intervals.lower(probe(from)) : null;
+        NavigableSet<BookingInterval> candidates = first == null
+                ? intervals.headSet(probe(to), false)
+                : intervals.subSet(first, true, probe(to), false);
+
+        return candidates.stream()
+                .filter(interval -> interval.overlaps(from, to))
+                .toList();
+    }
+
+    public void removeEndedBefore(LocalDateTime dateTime) {
+        if (!disjoint) {
+            intervals.removeIf(interval -> !interval.getEnd().isAfter(dateTime)
+                    && intervalsById.remove(interval.getBookingId()) != null);
+            return;
+        }
+
+        // Завершившиеся непересекающиеся интервалы всегда стоят в начале
+        while (!intervals.isEmpty() && !intervals.first().getEnd().isAfter(dateTime)) {
+            intervalsById.remove(intervals.pollFirst().getBookingId());
+        }
+    }
+
+    public void pin() {
+        pins.incrementAndGet();
+    }
+
+    public void unpin() {
+        pins.decrementAndGet();
+    }
+
+    public boolean isPinned() {
+        return pins.get() > 0;
+    }
+
+    public int size() {
+        return intervals.size();
+    }
+
+    private static BookingInterval probe(LocalDateTime start) {
+        return new BookingInterval(Long.MIN_VALUE, start, start, null);
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+public interface BookingDatesDtoShort {
+    Long getItemId();
+
+    LocalDateTime getLastEnd();
+
+    LocalDateTime getNextStart();
+
+    LocalDateTime getNextEnd();
+}
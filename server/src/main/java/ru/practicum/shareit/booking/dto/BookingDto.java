@@ -20,4 +20,12 @@ public class BookingDto {
     ItemDto item;
     UserDto booker;
     BookingStatuses status;
+
+    // Конструктор для выборки списков бронирований в DTO одним запросом, без загрузки сущностей
+    public BookingDto(Long id, LocalDateTime start, LocalDateTime end,
+                      Long itemId, Long ownerId, String itemName, String itemDescription, Boolean available,
+                      Long requestId, Long bookerId, String bookerName, String bookerEmail, BookingStatuses status) {
+        this(id, start, end, new ItemDto(itemId, ownerId, itemName, itemDescription, available, requestId),
+                new UserDto(bookerId, bookerName, bookerEmail), status);
+    }
 }
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.booking.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// Выгрузка всей истории бронирований в NDJSON: по одному бронированию в строке. Строки пишутся в ответ по мере
+// чтения из базы, поэтому память не зависит от длины истории. Пользователь проверяется до начала ответа, чтобы
+// ошибка вернулась обычным статусом, а чтение идет уже в потоке записи ответа в своей транзакции только для чтения
+@Component
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BookingExportService {
+    BookingRepository bookingRepository;
+    UserService userService;
+    TransactionTemplate transactionTemplate;
+    ObjectWriter writer;
+
+    @Autowired
+    public BookingExportService(BookingRepository bookingRepository,
+                                UserService userService,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper) {
+        this.bookingRepository = bookingRepository;
+        this.userService = userService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        // Сброс в сокет оставляем буферу ответа, а не каждой строке
+        this.writer = objectMapper.writerFor(BookingDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public StreamingResponseBody exportBookingsByUser(Long userId) {
+        userService.checkUserExists(userId);
+        return output -> export(output, userId, bookingRepository::streamAllUserBookings);
+    }
+
+    public StreamingResponseBody exportBookingsByOwner(Long userId) {
+        userService.checkUserExists(userId);
+        return output -> export(output, userId, bookingRepository::streamAllOwnerBookings);
+    }
+
+    private void export(OutputStream output, Long userId, Function<Long, Stream<BookingDto>> query)
+            throws IOException {
+        log.debug("Выгружаем историю бронирований пользователя с id {}.", userId);
+        try (JsonGenerator generator = writer.createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Long exported = transactionTemplate.execute(status -> {
+                try (Stream<BookingDto> bookings = query.apply(userId)) {
+                    long count = 0;
+                    for (Iterator<BookingDto> iterator = bookings.iterator(); iterator.hasNext(); count++) {
+                        write(generator, iterator.next());
+                    }
+                    return count;
+                }
+            });
+            log.debug("Выгружено {} бронирований пользователя с id {}.", exported, userId);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void write(JsonGenerator generator, BookingDto booking) {
+        try {
+            writer.writeValue(generator, booking);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
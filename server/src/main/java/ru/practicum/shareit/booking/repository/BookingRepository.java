@@ -1,76 +1,143 @@
 package ru.practicum.shareit.booking.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.booking.dto.BookingDatesDtoShort;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.enums.BookingStatuses;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    Collection<Booking> findAllByBookerId(Long userId);
+    String KEYSET_CONDITION = "and (?2 is null or b.start > ?2 or (b.start = ?2 and b.id > ?3)) ";
 
-    Collection<Booking> findAllByBookerIdAndStatus(Long bookerId, BookingStatuses status);
+    String KEYSET_ORDER = "order by b.start, b.id";
 
-    @Query("select b " +
+    String EXPORT_FETCH_SIZE = "500";
+
+    // Списки бронирований выбираются сразу в BookingDto: предмет и бронирующий присоединяются в том же запросе,
+    // а id владельца и запроса берутся из внешних ключей предмета без дополнительных соединений
+    String BOOKING_DTO = "select new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, " +
+            "i.id, i.user.id, i.name, i.description, i.available, i.request.id, " +
+            "u.id, u.name, u.email, b.status) " +
             "from Booking as b " +
-            "where b.booker.id = ?1 " +
-            "and CURRENT_TIMESTAMP > b.end")
-    Collection<Booking> findAllUserBookingsInPast(Long userId);
+            "join b.item as i " +
+            "join b.booker as u ";
 
+    // Для путей, которым нужна сама сущность: предмет и бронирующий загружаются вместе с бронированием
     @Query("select b " +
             "from Booking as b " +
+            "join fetch b.item " +
+            "join fetch b.booker " +
+            "where b.id = ?1")
+    Optional<Booking> findWithItemAndBookerById(Long bookingId);
+
+    @Query(BOOKING_DTO +
             "where b.booker.id = ?1 " +
-            "and CURRENT_TIMESTAMP BETWEEN b.start AND b.end")
-    Collection<Booking> findAllUserBookingsInPresent(Long userId);
+            KEYSET_CONDITION +
+            KEYSET_ORDER)
+    List<BookingDto> findAllUserBookings(Long userId, LocalDateTime cursorStart, Long cursorId, Limit limit);
 
-    @Query("select b " +
-            "from Booking as b " +
+    @Query(BOOKING_DTO +
             "where b.booker.id = ?1 " +
-            "and CURRENT_TIMESTAMP < b.start")
-    Collection<Booking> findAllUserBookingsInFuture(Long userId);
+            "and b.status = ?4 " +
+            KEYSET_CONDITION +
+            KEYSET_ORDER)
+    List<BookingDto> findAllUserBookingsByStatus(Long userId, LocalDateTime cursorStart, Long cursorId,
+                                              BookingStatuses status, Limit limit);
 
-    @Query("select b " +
-            "from Booking as b " +
-            "where b.item.user.id = ?1")
-    Collection<Booking> findAllOwnerBookings(Long userId);
+    @Query(BOOKING_DTO +
+            "where b.booker.id = ?1 " +
+            "and CURRENT_TIMESTAMP > b.end " +
+            KEYSET_CONDITION +
+            KEYSET_ORDER)
+    List<BookingDto> findAllUserBookingsInPast(Long userId, LocalDateTime cursorStart, Long cursorId, Limit limit);
 
-    @Query("select b " +
-            "from Booking as b " +
-            "where b.item.user.id = ?1" +
-            "and CURRENT_TIMESTAMP > b.end")
-    Collection<Booking> findAllOwnerBookingsInPast(Long userId);
+    @Query(BOOKING_DTO +
+            "where b.booker.id = ?1 " +
+            "and CURRENT_TIMESTAMP BETWEEN b.start AND b.end " +
+            KEYSET_CONDITION +
+            KEYSET_ORDER)
+    List<BookingDto> findAllUserBookingsInPresent(Long userId, LocalDateTime cursorStart, Long cursorId, Limit limit);
 
-    @Query("select b " +
-            "from Booking as b " +
-            "where b.item.user.id = ?1" +
-            "and CURRENT_TIMESTAMP BETWEEN b.start AND b.end")
-    Collection<Booking> findAllOwnerBookingsInPresent(Long userId);
+    @Query(BOOKING_DTO +
+            "where b.booker.id = ?1 " +
+            "and CURRENT_TIMESTAMP < b.start " +
+            KEYSET_CONDITION +
+            KEYSET_ORDER)
+    List<BookingDto> findAllUserBookingsInFuture(Long userId, LocalDateTime cursorStart, Long cursorId, Limit limit);
 
-    @Query("select b " +
-            "from Booking as b " +
-            "where b.item.user.id = ?1" +
-            "and CURRENT_TIMESTAMP BETWEEN b.start AND b.end")
-    Collection<Booking> findAllOwnerBookingsInFuture(Long userId);
+    @Query(BOOKING_DTO +
+            "where i.user.id = ?1 " +
+            KEYSET_CONDITION +
+            KEYSET_ORDER)
+    List<BookingDto> findAllOwnerBookings(Long userId, LocalDateTime cursorStart, Long cursorId, Limit limit);
 
-    @Query("select b " +
-            "from Booking as b " +
-            "where b.item.user.id = ?1" +
-            "and b.status = ?2")
-    Collection<Booking> findAllOwnerBookingsByIdAndStatus(Long userId, BookingStatuses status);
+    @Query(BOOKING_DTO +
+            "where i.user.id = ?1 " +
+            "and b.status = ?4 " +
+            KEYSET_CONDITION +
+            KEYSET_ORDER)
+    List<BookingDto> findAllOwnerBookingsByStatus(Long userId, LocalDateTime cursorStart, Long cursorId,
+                                               BookingStatuses status, Limit limit);
 
-    @Query("select b.start " +
-            "from Booking as b " +
-            "where b.item.id = ?1 " +
-            "and ?2 < b.start")
-    Collection<LocalDateTime> findNextBookingStartByItemId(Long itemId, LocalDateTime dateTime);
+    @Query(BOOKING_DTO +
+            "where i.user.id = ?1 " +
+            "and CURRENT_TIMESTAMP > b.end " +
+            KEYSET_CONDITION +
+            KEYSET_ORDER)
+    List<BookingDto> findAllOwnerBookingsInPast(Long userId, LocalDateTime cursorStart, Long cursorId, Limit limit);
 
-    @Query("select b.end " +
+    @Query(BOOKING_DTO +
+            "where i.user.id = ?1 " +
+            "and CURRENT_TIMESTAMP BETWEEN b.start AND b.end " +
+            KEYSET_CONDITION +
+            KEYSET_ORDER)
+    List<BookingDto> findAllOwnerBookingsInPresent(Long userId, LocalDateTime cursorStart, Long cursorId, Limit limit);
+
+    @Query(BOOKING_DTO +
+            "where i.user.id = ?1 " +
+            "and CURRENT_TIMESTAMP < b.start " +
+            KEYSET_CONDITION +
+            KEYSET_ORDER)
+    List<BookingDto> findAllOwnerBookingsInFuture(Long userId, LocalDateTime cursorStart, Long cursorId, Limit limit);
+
+    // Вся история бронирований для выгрузки: строки читаются из базы порциями по fetch size по мере записи ответа,
+    // поэтому потоки можно открывать только внутри транзакции и обязательно закрывать
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(BOOKING_DTO +
+            "where b.booker.id = ?1 " +
+            KEYSET_ORDER)
+    Stream<BookingDto> streamAllUserBookings(Long userId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(BOOKING_DTO +
+            "where i.user.id = ?1 " +
+            KEYSET_ORDER)
+    Stream<BookingDto> streamAllOwnerBookings(Long userId);
+
+    // Окончание последнего, начало ближайшего и окончание ближайшего незавершенного бронирования каждой вещи
+    // одним запросом
+    @Query("select b.item.id as itemId, " +
+            "max(case when ?2 > b.end then b.end end) as lastEnd, " +
+            "min(case when ?2 < b.start then b.start end) as nextStart, " +
+            "min(case when ?2 < b.end then b.end end) as nextEnd " +
             "from Booking as b " +
-            "where b.item.id = ?1 " +
-            "and ?2 > b.end")
-    Collection<LocalDateTime> findLastBookingEndByItemId(Long itemId, LocalDateTime dateTime);
+            "where b.item.id in ?1 " +
+            "group by b.item.id")
+    Collection<BookingDatesDtoShort> findBookingDatesByItemIds(Collection<Long> itemIds, LocalDateTime dateTime);
+
+    List<Booking> findAllByItemIdAndStatusInAndEndAfter(Long itemId, Collection<BookingStatuses> statuses,
+                                                        LocalDateTime dateTime);
 
     Boolean existsByBookerIdAndItemIdAndEndBefore(long bookerId, long itemId, LocalDateTime localDateTime);
 }
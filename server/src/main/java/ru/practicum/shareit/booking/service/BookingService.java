@@ -3,16 +3,22 @@ package ru.practicum.shareit.booking.service;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.NewRequestBookingDto;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 public interface BookingService {
     BookingDto create(Long userId, NewRequestBookingDto bookingDto);
 
+    Collection<BookingDto> createAll(Long userId, List<NewRequestBookingDto> bookingDtos);
+
     BookingDto approve(Long userId, Long bookingId, boolean approved);
 
     BookingDto getBookingById(Long userId, Long bookingId);
 
-    Collection<BookingDto> findAllBookingsByUser(Long userId, String bookingState);
+    Collection<BookingDto> findAllBookingsByUser(Long userId, String bookingState, LocalDateTime cursorStart,
+                                                 Long cursorId, int size);
 
-    Collection<BookingDto> findAllBookingsByOwner(Long userId, String bookingState);
+    Collection<BookingDto> findAllBookingsByOwner(Long userId, String bookingState, LocalDateTime cursorStart,
+                                                  Long cursorId, int size);
 }
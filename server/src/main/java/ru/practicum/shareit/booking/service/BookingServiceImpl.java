@@ -4,72 +4,123 @@ import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityService;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.NewRequestBookingDto;
 import ru.practicum.shareit.booking.enums.BookingStates;
 import ru.practicum.shareit.booking.enums.BookingStatuses;
+import ru.practicum.shareit.booking.event.BookingsSavedEvent;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class BookingServiceImpl implements BookingService {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 1000;
+
     ItemRepository itemRepository;
     UserService userService;
     BookingRepository bookingRepository;
+    BookingAvailabilityService availabilityService;
+    ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public BookingServiceImpl(ItemRepository repository,
                               UserService userService,
-                              BookingRepository bookingRepository) {
+                              BookingRepository bookingRepository,
+                              BookingAvailabilityService availabilityService,
+                              ApplicationEventPublisher eventPublisher) {
         this.itemRepository = repository;
         this.userService = userService;
         this.bookingRepository = bookingRepository;
+        this.availabilityService = availabilityService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ITEMS_CACHE, key = "#bookingDto.itemId")
     public BookingDto create(Long userId, NewRequestBookingDto bookingDto) {
         log.debug("Создаем новую запись о бронировании.");
-        // Проверяем существует ли пользователь
+        // Проверяем существует ли пользователь, бронирующий попадает в ответ целиком
         User user = userService.getUserById(userId);
 
         // Проверяем существует ли предмет
         Item item = isItemExists(bookingDto.getItemId());
-        Booking booking;
+        Booking booking = reserve(user, item, bookingDto);
+        BookingDto createdBooking = BookingMapper.mapBookingToBookingDto(booking);
+        eventPublisher.publishEvent(new BookingsSavedEvent(List.of(createdBooking)));
+        log.debug("Новая бронь была успешно добавлена.");
+        return createdBooking;
+    }
 
-        if (!item.getAvailable()) {
-            throw new ValidationException("Предмет не доступен для бронирования.");
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ITEMS_CACHE, allEntries = true)
+    public Collection<BookingDto> createAll(Long userId, List<NewRequestBookingDto> bookingDtos) {
+        log.debug("Создаем пакет записей о бронировании.");
+        if (bookingDtos.isEmpty() || bookingDtos.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Пакет должен содержать от 1 до " + MAX_BATCH_SIZE + " бронирований.");
         }
+        // Пакет мог прийти в обход gateway, а бронь без предмета и дат нельзя проверить по календарю
+        bookingDtos.forEach(this::checkRequiredFields);
+        // Проверяем существует ли пользователь, бронирующий попадает в ответ целиком
+        User user = userService.getUserById(userId);
 
-        if (bookingDto.getStart().isBefore(bookingDto.getEnd())) {
-            booking = bookingRepository.save(BookingMapper.mapNewRequestToBooking(bookingDto, user, item));
-        } else {
-            throw new ValidationException("Дата начала бронирования и дата окончания не могут быть равны.");
+        // Проверяем существуют ли предметы, все предметы пакета загружаются одним запросом
+        Set<Long> itemIds = bookingDtos.stream()
+                .map(NewRequestBookingDto::getItemId)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, item -> item));
+        for (Long itemId : itemIds) {
+            if (!items.containsKey(itemId)) {
+                throw new NotFoundException("Предмет с id " + itemId + " не найден.");
+            }
         }
-        log.debug("Новая бронь была успешно добавлена.");
-        return BookingMapper.mapBookingToBookingDto(booking);
+        // Календари загружаем до первой записи: запрос к бронированиям сбросил бы накопленные вставки по одной
+        itemIds.forEach(availabilityService::getCalendar);
+
+        // Бронь проверяется и по существующим, и по предыдущим броням пакета, вставки уходят в базу пакетами
+        List<BookingDto> createdBookings = new ArrayList<>(bookingDtos.size());
+        for (NewRequestBookingDto bookingDto : bookingDtos) {
+            Booking booking = reserve(user, items.get(bookingDto.getItemId()), bookingDto);
+            createdBookings.add(BookingMapper.mapBookingToBookingDto(booking));
+        }
+        eventPublisher.publishEvent(new BookingsSavedEvent(createdBookings));
+        log.debug("Пакет бронирований из {} записей успешно добавлен.", createdBookings.size());
+        return createdBookings;
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ITEMS_CACHE, key = "#result.item.id")
     public BookingDto approve(Long userId, Long bookingId, boolean approved) {
         log.debug("Одобряем или отклоняем запрос на бронирование.");
 
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId)
                 .orElseThrow(() -> new NotFoundException(String.format("Ошибка при обработке запроса на бронирование. " +
                 "Бронирование с id %d не найдено.", bookingId)));
 
@@ -79,14 +130,18 @@ public class BookingServiceImpl implements BookingService {
         } else {
             if (approved) {
                 booking.setStatus(BookingStatuses.APPROVED);
+                availabilityService.confirm(booking);
             } else {
                 booking.setStatus(BookingStatuses.REJECTED);
+                availabilityService.release(booking);
             }
         }
         bookingRepository.save(booking);
+        BookingDto savedBooking = BookingMapper.mapBookingToBookingDto(booking);
+        eventPublisher.publishEvent(new BookingsSavedEvent(List.of(savedBooking)));
 
         log.debug("Владелец вещи успешно вынес решение по бронированию.");
-        return BookingMapper.mapBookingToBookingDto(booking);
+        return savedBooking;
     }
 
     @Override
@@ -94,9 +149,9 @@ public class BookingServiceImpl implements BookingService {
     public BookingDto getBookingById(Long userId, Long bookingId) {
         log.debug("Получаем данные об определенном бронировании.");
         // Проверяем существует ли пользователь
-        userService.getUserById(userId);
+        userService.checkUserExists(userId);
 
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId)
                 .orElseThrow(() -> new NotFoundException(String.format("Ошибка при обработке запроса на бронирование. " +
                         "Бронирование с id %d не найдено.", bookingId)));
 
@@ -111,54 +166,98 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional(readOnly = true)
-    public Collection<BookingDto> findAllBookingsByUser(Long userId, String bookingState) {
+    public Collection<BookingDto> findAllBookingsByUser(Long userId, String bookingState, LocalDateTime cursorStart,
+                                                        Long cursorId, int size) {
         log.debug("Получаем все записи о бронировании определенного пользователя.");
         BookingStates state = BookingStates.valueOf(bookingState);
-        Collection<Booking> userBookingsList;
+        Limit limit = getPageLimit(size);
+        Long afterId = getCursorId(cursorId);
+        List<BookingDto> userBookingsList;
 
         // Проверяем существует ли пользователь
-        userService.getUserById(userId);
+        userService.checkUserExists(userId);
 
         userBookingsList = switch (state) {
-            case ALL -> bookingRepository.findAllByBookerId(userId);
-            case PAST -> bookingRepository.findAllUserBookingsInPast(userId);
-            case CURRENT -> bookingRepository.findAllUserBookingsInPresent(userId);
-            case FUTURE -> bookingRepository.findAllUserBookingsInFuture(userId);
-            case WAITING -> bookingRepository.findAllByBookerIdAndStatus(userId, BookingStatuses.WAITING);
-            case REJECTED -> bookingRepository.findAllByBookerIdAndStatus(userId, BookingStatuses.REJECTED);
+            case ALL -> bookingRepository.findAllUserBookings(userId, cursorStart, afterId, limit);
+            case PAST -> bookingRepository.findAllUserBookingsInPast(userId, cursorStart, afterId, limit);
+            case CURRENT -> bookingRepository.findAllUserBookingsInPresent(userId, cursorStart, afterId, limit);
+            case FUTURE -> bookingRepository.findAllUserBookingsInFuture(userId, cursorStart, afterId, limit);
+            case WAITING -> bookingRepository.findAllUserBookingsByStatus(userId, cursorStart, afterId,
+                    BookingStatuses.WAITING, limit);
+            case REJECTED -> bookingRepository.findAllUserBookingsByStatus(userId, cursorStart, afterId,
+                    BookingStatuses.REJECTED, limit);
         };
 
         log.debug("Все записи о бронировании определенного пользователя успешно получены.");
-        return userBookingsList.stream()
-                .map(BookingMapper::mapBookingToBookingDto)
-                .sorted(Comparator.comparing(BookingDto::getStart))
-                .collect(Collectors.toList());
+        return userBookingsList;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Collection<BookingDto> findAllBookingsByOwner(Long userId, String bookingState) {
+    public Collection<BookingDto> findAllBookingsByOwner(Long userId, String bookingState, LocalDateTime cursorStart,
+                                                         Long cursorId, int size) {
         log.debug("Получаем все записи о забронированных вещах владельца.");
         BookingStates state = BookingStates.valueOf(bookingState);
-        Collection<Booking> ownerBookingsList;
+        Limit limit = getPageLimit(size);
+        Long afterId = getCursorId(cursorId);
+        List<BookingDto> ownerBookingsList;
 
         // Проверяем существует ли пользователь
-        userService.getUserById(userId);
+        userService.checkUserExists(userId);
 
         ownerBookingsList = switch (state) {
-            case ALL -> bookingRepository.findAllOwnerBookings(userId);
-            case PAST -> bookingRepository.findAllOwnerBookingsInPast(userId);
-            case CURRENT -> bookingRepository.findAllOwnerBookingsInPresent(userId);
-            case FUTURE -> bookingRepository.findAllOwnerBookingsInFuture(userId);
-            case WAITING -> bookingRepository.findAllOwnerBookingsByIdAndStatus(userId, BookingStatuses.WAITING);
-            case REJECTED -> bookingRepository.findAllOwnerBookingsByIdAndStatus(userId, BookingStatuses.REJECTED);
+            case ALL -> bookingRepository.findAllOwnerBookings(userId, cursorStart, afterId, limit);
+            case PAST -> bookingRepository.findAllOwnerBookingsInPast(userId, cursorStart, afterId, limit);
+            case CURRENT -> bookingRepository.findAllOwnerBookingsInPresent(userId, cursorStart, afterId, limit);
+            case FUTURE -> bookingRepository.findAllOwnerBookingsInFuture(userId, cursorStart, afterId, limit);
+            case WAITING -> bookingRepository.findAllOwnerBookingsByStatus(userId, cursorStart, afterId,
+                    BookingStatuses.WAITING, limit);
+            case REJECTED -> bookingRepository.findAllOwnerBookingsByStatus(userId, cursorStart, afterId,
+                    BookingStatuses.REJECTED, limit);
         };
 
         log.debug("Все записи о забронированных вещах владельца успешно получены.");
-        return ownerBookingsList.stream()
-                .map(BookingMapper::mapBookingToBookingDto)
-                .sorted(Comparator.comparing(BookingDto::getStart))
-                .collect(Collectors.toList());
+        return ownerBookingsList;
+    }
+
+    private Limit getPageLimit(int size) {
+        if (size < 1) {
+            throw new ValidationException("Размер страницы должен быть больше нуля.");
+        }
+        return Limit.of(Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private Long getCursorId(Long cursorId) {
+        // Без id курсора продолжаем выборку со всех бронирований с той же датой начала
+        return cursorId != null ? cursorId : 0L;
+    }
+
+    private Booking reserve(User user, Item item, NewRequestBookingDto bookingDto) {
+        if (!item.getAvailable()) {
+            throw new ValidationException("Предмет не доступен для бронирования.");
+        }
+
+        if (!bookingDto.getStart().isBefore(bookingDto.getEnd())) {
+            throw new ValidationException("Дата начала бронирования и дата окончания не могут быть равны.");
+        }
+        // Проверяем не пересекается ли бронь с уже существующими
+        return availabilityService.reserve(item.getId(), bookingDto.getStart(), bookingDto.getEnd(),
+                () -> bookingRepository.save(BookingMapper.mapNewRequestToBooking(bookingDto, user, item)));
+    }
+
+    private void checkRequiredFields(NewRequestBookingDto bookingDto) {
+        if (bookingDto == null) {
+            throw new ValidationException("Бронирование в пакете не может быть равно null.");
+        }
+        if (bookingDto.getItemId() == null) {
+            throw new ValidationException("Id предмета не может быть равен null.");
+        }
+        if (bookingDto.getStart() == null) {
+            throw new ValidationException("Дата начала бронирования не может равна null.");
+        }
+        if (bookingDto.getEnd() == null) {
+            throw new ValidationException("Дата окончания бронирования не может равна null.");
+        }
     }
 
     private Item isItemExists(Long itemId) {
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String ITEMS_CACHE = "items";
+
+    // Регионы кэша второго уровня Hibernate, создаются в HibernateConfig
+    public static final String USERS_REGION = "user-entities";
+    public static final String ITEMS_REGION = "item-entities";
+    public static final String REQUESTS_REGION = "request-entities";
+
+    // Сброс записи откладывается до коммита, чтобы читатели не вернули в кэш незакоммиченные данные
+    @Bean
+    public CacheManager cacheManager(@Value("${shareit.cache.items.spec:maximumSize=10000,expireAfterWrite=30s," +
+            "recordStats}") String itemsCacheSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCacheSpecification(itemsCacheSpec);
+        cacheManager.setCacheNames(List.of(ITEMS_CACHE));
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
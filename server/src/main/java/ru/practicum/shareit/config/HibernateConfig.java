@@ -0,0 +1,68 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.metrics.EntityLoadListener;
+import ru.practicum.shareit.metrics.SqlStatementInspector;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+@Configuration
+public class HibernateConfig {
+    // Каждый SQL-запрос проходит через счетчик запросов текущего HTTP-запроса
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementInspectorCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+    }
+
+    // Каждая загруженная сущность проходит через счетчик загрузок текущего HTTP-запроса
+    @Bean
+    public EntityLoadListener entityLoadListener(EntityManagerFactory entityManagerFactory) {
+        EntityLoadListener listener = new EntityLoadListener();
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getServiceRegistry()
+                .requireService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, listener);
+        return listener;
+    }
+
+    // Регионы кэша второго уровня создаются здесь, а не по требованию Hibernate (missing_cache_strategy=fail):
+    // регионы сущностей ограничены по размеру и времени жизни, ведь кэш живет внутри процесса и не видит изменений
+    // в базе в обход Hibernate, а метки изменений таблиц для кэша запросов не вытесняются совсем.
+    // Менеджер кэшей у каждого контекста свой, Hibernate закрывает его вместе с фабрикой сессий
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(
+            @Value("${shareit.cache.entities.maximum-size:10000}") long maximumSize,
+            @Value("${shareit.cache.entities.expire-after-write:10m}") Duration expireAfterWrite) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("shareit-hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+        CaffeineConfiguration<Object, Object> entities = new CaffeineConfiguration<>()
+                .setMaximumSize(OptionalLong.of(maximumSize))
+                .setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        entities.setStoreByValue(false);
+        for (String region : List.of(CacheConfig.USERS_REGION, CacheConfig.ITEMS_REGION, CacheConfig.REQUESTS_REGION,
+                RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME)) {
+            cacheManager.createCache(region, entities);
+        }
+        CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+        timestamps.setStoreByValue(false);
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, timestamps);
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    }
+}
@@ -4,13 +4,17 @@ import jakarta.validation.Valid;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ImprovedItemDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
@@ -25,6 +29,12 @@ public class ItemController {
         return itemService.create(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public Collection<ItemDto> createAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                         @RequestBody List<ItemDto> itemDtos) {
+        return itemService.createAll(userId, itemDtos);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto createComment(@RequestHeader("X-Sharer-User-Id") Long userId,
                                     @Valid @RequestBody CommentDto commentDto,
@@ -53,4 +63,15 @@ public class ItemController {
     public Collection<ItemDto> searchItem(@RequestParam(name = "text", required = false) String text) {
         return itemService.searchItem(text);
     }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getItemAvailability(@PathVariable("itemId") Long itemId,
+                                                   @RequestParam(name = "from")
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime from,
+                                                   @RequestParam(name = "to")
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime to) {
+        return itemService.getItemAvailability(itemId, from, to);
+    }
 }
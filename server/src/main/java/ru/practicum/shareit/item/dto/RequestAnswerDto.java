@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+// Ответ на запрос вместе с id запроса, по которому ответы группируются в памяти
+public interface RequestAnswerDto extends ItemDtoShort {
+    @JsonIgnore
+    Long getRequestId();
+}
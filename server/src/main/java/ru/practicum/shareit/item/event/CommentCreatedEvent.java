@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.item.dto.CommentDto;
+
+@Getter
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CommentCreatedEvent {
+    CommentDto comment;
+}
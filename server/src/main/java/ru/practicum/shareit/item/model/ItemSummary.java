@@ -0,0 +1,56 @@
+package ru.practicum.shareit.item.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.DynamicUpdate;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// Обновляются только измененные колонки: пересчет дат при чтении не перезаписывает комментарии,
+// которые другая транзакция добавила после того, как сводка была прочитана
+@Entity
+@Table(name = "item_summary")
+@DynamicUpdate
+@EqualsAndHashCode(of = {"itemId"})
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ItemSummary implements Persistable<Long> {
+    @Id
+    @Column(name = "item_id")
+    Long itemId;
+
+    @Column(name = "last_booking_end")
+    LocalDateTime lastBookingEnd;
+
+    @Column(name = "next_booking_start")
+    LocalDateTime nextBookingStart;
+
+    @Column(name = "valid_until")
+    LocalDateTime validUntil;
+
+    @Column(name = "comment_count", nullable = false)
+    int commentCount;
+
+    @Column(name = "comments")
+    String comments;
+
+    // Новая сводка добавляется без select, которым save проверяет существование записи с заданным id
+    @Transient
+    boolean created;
+
+    @Override
+    public Long getId() {
+        return itemId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return created;
+    }
+}
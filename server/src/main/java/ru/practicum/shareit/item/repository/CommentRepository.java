@@ -1,10 +1,21 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.Collection;
+import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    Collection<Comment> findAllByItemId(Long itemId);
+    @Query("select c " +
+            "from Comment as c " +
+            "join fetch c.author " +
+            "where c.item.id in ?1")
+    Collection<Comment> findAllByItemIdIn(Collection<Long> itemIds);
+
+    @Query("select distinct c.item.id " +
+            "from Comment as c " +
+            "where c.author.id = ?1")
+    List<Long> findItemIdsByAuthorId(Long authorId);
 }
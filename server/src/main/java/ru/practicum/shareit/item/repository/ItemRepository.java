@@ -1,13 +1,21 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.item.dto.ItemDtoShort;
+import ru.practicum.shareit.item.dto.RequestAnswerDto;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.Collection;
+import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    // Список вещей владельца берется из кэша запросов, пока таблица items не менялась, а сами вещи из кэша сущностей
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Collection<Item> findAllByUserId(Long userId);
 
     @Query("select it " +
@@ -15,8 +23,24 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "join it.user as u " +
             "where it.available = true " +
             "and (lower(it.name) like lower(concat('%', ?1, '%')) " +
-            "or lower(it.description) like lower(concat('%', ?1, '%'))) ")
-    Collection<Item> findAllByText(String text);
+            "or lower(it.description) like lower(concat('%', ?1, '%'))) " +
+            "order by it.id")
+    List<Item> findAllByText(String text, Limit limit);
+
+    @Query(value = "select it.* " +
+            "from items as it " +
+            "where it.available = true " +
+            "and (it.name ilike concat('%', ?1, '%') " +
+            "or it.description ilike concat('%', ?1, '%')) " +
+            "order by greatest(similarity(it.name, ?1), similarity(it.description, ?1)) desc, it.id " +
+            "limit ?2", nativeQuery = true)
+    List<Item> findAllByTextRanked(String text, int limit);
 
     Collection<ItemDtoShort> findAllByRequestId(Long requestId);
+
+    @Query("select it.id as id, it.name as name, it.user.id as userId, it.request.id as requestId " +
+            "from Item as it " +
+            "where it.request.id in ?1 " +
+            "order by it.id")
+    List<RequestAnswerDto> findAllByRequestIdIn(Collection<Long> requestIds);
 }
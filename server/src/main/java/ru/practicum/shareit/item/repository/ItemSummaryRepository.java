@@ -0,0 +1,37 @@
+package ru.practicum.shareit.item.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.model.ItemSummary;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemSummaryRepository extends JpaRepository<ItemSummary, Long> {
+    // Строки сводок блокируются до конца транзакции, изменения одной сводки из параллельных транзакций
+    // выполняются по очереди. Несколько строк блокируются в порядке id, чтобы транзакции не ждали друг друга по кругу
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ItemSummary as s where s.itemId = ?1")
+    Optional<ItemSummary> findForUpdate(Long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ItemSummary as s where s.itemId in ?1 order by s.itemId")
+    List<ItemSummary> findAllForUpdate(Collection<Long> itemIds);
+
+    // Сводки предметов, добавленных в обход приложения. Строка, которую уже добавила параллельная транзакция,
+    // пропускается: вставка ждет ее коммита и не падает на первичном ключе
+    @Modifying
+    @Query(value = "insert into item_summary (item_id, comment_count) " +
+            "select i.id, 0 from items as i where i.id in ?1 " +
+            "on conflict do nothing", nativeQuery = true)
+    int insertMissing(Collection<Long> itemIds);
+
+    // Сброшенные комментарии строятся заново из базы при следующем чтении сводки
+    @Modifying
+    @Query("update ItemSummary as s set s.comments = null where s.itemId in ?1")
+    int resetComments(Collection<Long> itemIds);
+}
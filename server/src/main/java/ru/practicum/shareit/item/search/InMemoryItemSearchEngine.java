@@ -0,0 +1,173 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Инвертированный индекс в памяти: ключи - триграммы нормализованных названия и описания доступных вещей.
+// Триграммы сохраняют семантику поиска по подстроке, кандидаты проверяются точным сравнением.
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    private static final int GRAM_LENGTH = 3;
+
+    ItemRepository itemRepository;
+    int limit;
+    Map<Long, IndexedItem> items = new HashMap<>();
+    Map<String, Set<Long>> postings = new HashMap<>();
+    ReadWriteLock lock = new ReentrantReadWriteLock();
+    @NonFinal
+    volatile boolean ready = false;
+
+    @Autowired
+    public InMemoryItemSearchEngine(ItemRepository itemRepository,
+                                    @Value("${shareit.search.limit:100}") int limit) {
+        this.itemRepository = itemRepository;
+        this.limit = limit;
+    }
+
+    @Override
+    public List<ItemDto> search(String text) {
+        if (!ready) {
+            // Пока индекс не построен, ищем в базе данных
+            return itemRepository.findAllByText(text, Limit.of(limit)).stream()
+                    .map(ItemMapper::mapToItemDto)
+                    .toList();
+        }
+
+        String query = normalize(text);
+        lock.readLock().lock();
+        try {
+            Collection<Long> candidates = query.length() < GRAM_LENGTH ? items.keySet() : findCandidates(query);
+            return candidates.stream()
+                    .sorted()
+                    .map(items::get)
+                    .filter(item -> item.getText().contains(query))
+                    .limit(limit)
+                    .map(IndexedItem::getItem)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Предметы читаются под блокировкой записи: изменение, закоммиченное во время чтения, ждет конца перестроения
+    // и применяется поверх него, а не стирается очисткой индекса. Поиск до готовности индекса блокировку не берет
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        log.debug("Строим поисковый индекс предметов.");
+        lock.writeLock().lock();
+        try {
+            List<ItemDto> allItems = itemRepository.findAll().stream()
+                    .map(ItemMapper::mapToItemDto)
+                    .toList();
+            items.clear();
+            postings.clear();
+            allItems.forEach(this::index);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Поисковый индекс предметов построен, проиндексировано {} предметов.", items.size());
+    }
+
+    @TransactionalEventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        lock.writeLock().lock();
+        try {
+            remove(event.getItem().getId());
+            index(event.getItem());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Collection<Long> findCandidates(String query) {
+        List<Set<Long>> sets = new ArrayList<>();
+        for (String gram : grams(query)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            sets.add(ids);
+        }
+        sets.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> candidates = new HashSet<>(sets.getFirst());
+        for (int i = 1; i < sets.size() && !candidates.isEmpty(); i++) {
+            candidates.retainAll(sets.get(i));
+        }
+        return candidates;
+    }
+
+    private void index(ItemDto item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+        IndexedItem indexedItem = new IndexedItem(item);
+        items.put(item.getId(), indexedItem);
+        for (String gram : grams(indexedItem.getText())) {
+            postings.computeIfAbsent(gram, key -> new HashSet<>()).add(item.getId());
+        }
+    }
+
+    private void remove(Long itemId) {
+        IndexedItem indexedItem = items.remove(itemId);
+        if (indexedItem == null) {
+            return;
+        }
+        for (String gram : grams(indexedItem.getText())) {
+            Set<Long> ids = postings.get(gram);
+            ids.remove(itemId);
+            if (ids.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    @Getter
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static class IndexedItem {
+        ItemDto item;
+        String text;
+
+        IndexedItem(ItemDto item) {
+            this.item = item;
+            this.text = normalize(item.getName()) + "\n" + normalize(item.getDescription());
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+// Поиск через LIKE по подстроке, совместим с любой базой данных (в том числе H2 в тестах)
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "like", matchIfMissing = true)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class LikeItemSearchEngine implements ItemSearchEngine {
+    ItemRepository itemRepository;
+    int limit;
+
+    @Autowired
+    public LikeItemSearchEngine(ItemRepository itemRepository,
+                                @Value("${shareit.search.limit:100}") int limit) {
+        this.itemRepository = itemRepository;
+        this.limit = limit;
+    }
+
+    @Override
+    public List<ItemDto> search(String text) {
+        return itemRepository.findAllByText(text, Limit.of(limit)).stream()
+                .map(ItemMapper::mapToItemDto)
+                .toList();
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+// Поиск по триграммным GIN-индексам PostgreSQL (миграция V3__add_trigram_search_indexes.sql)
+// с ранжированием по схожести
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "trigram")
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TrigramItemSearchEngine implements ItemSearchEngine {
+    ItemRepository itemRepository;
+    int limit;
+
+    @Autowired
+    public TrigramItemSearchEngine(ItemRepository itemRepository,
+                                   @Value("${shareit.search.limit:100}") int limit) {
+        this.itemRepository = itemRepository;
+        this.limit = limit;
+    }
+
+    @Override
+    public List<ItemDto> search(String text) {
+        return itemRepository.findAllByTextRanked(text, limit).stream()
+                .map(ItemMapper::mapToItemDto)
+                .toList();
+    }
+}
@@ -2,13 +2,18 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ImprovedItemDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 public interface ItemService {
     ItemDto create(Long userId, ItemDto itemDto);
 
+    Collection<ItemDto> createAll(Long userId, List<ItemDto> itemDtos);
+
     ItemDto update(Long userId, Long itemId, ItemDto itemDto);
 
     ImprovedItemDto getItemById(Long itemId);
@@ -18,4 +23,6 @@ public interface ItemService {
     Collection<ItemDto> searchItem(String text);
 
     CommentDto createComment(Long userId, Long itemId, CommentDto commentDto);
+
+    ItemAvailabilityDto getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 }
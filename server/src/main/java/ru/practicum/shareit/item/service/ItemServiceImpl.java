@@ -4,49 +4,76 @@ import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityService;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ImprovedItemDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.event.CommentCreatedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.summary.ItemSummaryService;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class ItemServiceImpl implements ItemService {
+    private static final int MAX_BATCH_SIZE = 1000;
+
     ItemRepository itemRepository;
-    UserRepository userRepository;
+    UserService userService;
     BookingRepository bookingRepository;
     CommentRepository commentRepository;
     ItemRequestRepository itemRequestRepository;
+    ItemSearchEngine itemSearchEngine;
+    ApplicationEventPublisher eventPublisher;
+    BookingAvailabilityService availabilityService;
+    ItemSummaryService summaryService;
 
     @Autowired
     public ItemServiceImpl(ItemRepository repository,
-                           UserRepository userRepository,
+                           UserService userService,
                            BookingRepository bookingRepository,
                            CommentRepository commentRepository,
-                           ItemRequestRepository itemRequestRepository) {
+                           ItemRequestRepository itemRequestRepository,
+                           ItemSearchEngine itemSearchEngine,
+                           ApplicationEventPublisher eventPublisher,
+                           BookingAvailabilityService availabilityService,
+                           ItemSummaryService summaryService) {
         this.itemRepository = repository;
-        this.userRepository = userRepository;
+        this.userService = userService;
         this.bookingRepository = bookingRepository;
         this.commentRepository = commentRepository;
         this.itemRequestRepository = itemRequestRepository;
+        this.itemSearchEngine = itemSearchEngine;
+        this.eventPublisher = eventPublisher;
+        this.availabilityService = availabilityService;
+        this.summaryService = summaryService;
     }
 
     @Override
@@ -54,8 +81,8 @@ public class ItemServiceImpl implements ItemService {
     public ItemDto create(Long userId, ItemDto itemDto) {
         log.debug("Создаем новую запись о предмете.");
         ItemRequest itemRequest;
-        // Проверяем существует ли пользователь
-        User user = isUserExists(userId);
+        // Проверяем существует ли пользователь, от владельца предмету нужен только id
+        User user = userService.getUserReference(userId);
         if (itemDto.getRequestId() != null) {
             itemRequest = itemRequestRepository.findById(itemDto.getRequestId())
                     .orElseThrow(() -> new NotFoundException(String.format("Ошибка при добавлении предмета. " +
@@ -65,59 +92,108 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item item = itemRepository.save(ItemMapper.mapToItem(itemDto, user, itemRequest));
+        ItemDto createdItem = ItemMapper.mapToItemDto(item);
+        eventPublisher.publishEvent(new ItemSavedEvent(createdItem, true));
 
         log.debug("Новая запись о предмете успешно добавлена в базу данных.");
-        return ItemMapper.mapToItemDto(item);
+        return createdItem;
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional
+    public Collection<ItemDto> createAll(Long userId, List<ItemDto> itemDtos) {
+        log.debug("Создаем пакет записей о предметах.");
+        if (itemDtos.isEmpty() || itemDtos.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Пакет должен содержать от 1 до " + MAX_BATCH_SIZE + " предметов.");
+        }
+        // Пакет мог прийти в обход gateway, а незаполненные поля нарушили бы ограничения таблицы
+        itemDtos.forEach(this::checkRequiredFields);
+        // Проверяем существует ли пользователь, от владельца предметам нужен только id
+        User user = userService.getUserReference(userId);
+
+        // Запросы на добавление всех предметов пакета загружаются одним запросом
+        Set<Long> requestIds = itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> itemRequests = requestIds.isEmpty() ? Map.of() : itemRequestRepository
+                .findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, itemRequest -> itemRequest));
+        for (Long requestId : requestIds) {
+            if (!itemRequests.containsKey(requestId)) {
+                throw new NotFoundException(String.format("Ошибка при добавлении предмета. " +
+                        "Запрос на добавление с id %d не найден.", requestId));
+            }
+        }
+
+        // Идентификаторы выдает последовательность, поэтому вставки уходят в базу пакетами при коммите
+        List<Item> items = itemDtos.stream()
+                .map(itemDto -> ItemMapper.mapToItem(itemDto, user, itemDto.getRequestId() == null ? null :
+                        itemRequests.get(itemDto.getRequestId())))
+                .toList();
+        List<ItemDto> createdItems = itemRepository.saveAll(items).stream()
+                .map(ItemMapper::mapToItemDto)
+                .toList();
+        createdItems.forEach(createdItem -> eventPublisher.publishEvent(new ItemSavedEvent(createdItem, true)));
+
+        log.debug("Пакет из {} предметов успешно добавлен в базу данных.", createdItems.size());
+        return createdItems;
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ITEMS_CACHE, key = "#itemId")
     public ItemDto update(Long userId, Long itemId, ItemDto itemDto) {
         log.debug("Обновляем данные о предмете.");
         // Проверяем существует ли пользователь
-        isUserExists(userId);
+        userService.checkUserExists(userId);
 
         // Проверяем существует ли предмет
         Item item = isItemExists(itemId);
 
         Item updatedItem = itemRepository.save(ItemMapper.updateItemData(item, itemDto));
+        ItemDto savedItem = ItemMapper.mapToItemDto(updatedItem);
+        eventPublisher.publishEvent(new ItemSavedEvent(savedItem, false));
 
         log.debug("Данные о предмете успешно обновлены.");
-        return ItemMapper.mapToItemDto(updatedItem);
+        return savedItem;
     }
 
+    // Не readOnly: устаревшая сводка предмета пересчитывается и сохраняется при чтении
     @Override
-    @Transactional(readOnly = true)
+    @Transactional
+    @Cacheable(cacheNames = CacheConfig.ITEMS_CACHE, key = "#itemId")
     public ImprovedItemDto getItemById(Long itemId) {
         log.debug("Получаем данные о предмете по его id.");
         // Проверяем существует ли предмет
         Item item = isItemExists(itemId);
-        List<CommentDto> comments = commentRepository.findAllByItemId(itemId).stream()
-                .map(CommentMapper::mapCommentToCommentDto)
-                .toList();
+        ItemSummary summary = summaryService.getSummary(itemId);
 
         log.debug("Данные о предмете по его id успешно получены.");
-        return ItemMapper.mapItemToImprovedItemDto(item, getLastBookingEndDate(itemId), getNextBookingStartDate(itemId),
-                comments);
+        return mapItemToImprovedItemDto(item, summary);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional
     public Collection<ImprovedItemDto> getAllUserItems(Long userId) {
         log.debug("Получаем список всех вещей пользователя.");
         // Проверяем существует ли пользователь
-        isUserExists(userId);
-
-        return itemRepository.findAllByUserId(userId).stream()
-                .map(item -> {
-                    List<CommentDto> comments = commentRepository.findAllByItemId(item.getId()).stream()
-                            .map(CommentMapper::mapCommentToCommentDto)
-                            .toList();
-                    LocalDateTime lastBookingDate = getLastBookingEndDate(item.getId());
-                    LocalDateTime nextBookingDate = getNextBookingStartDate(item.getId());
-                    return ItemMapper.mapItemToImprovedItemDto(item, lastBookingDate, nextBookingDate,
-                            comments);
-                })
+        userService.checkUserExists(userId);
+
+        Collection<Item> items = itemRepository.findAllByUserId(userId);
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .toList();
+
+        // Даты бронирований и комментарии всех вещей пользователя берем из их сводок
+        Map<Long, ItemSummary> summaries = summaryService.getSummaries(itemIds);
+
+        log.debug("Список всех вещей пользователя успешно получен.");
+        return items.stream()
+                .map(item -> mapItemToImprovedItemDto(item, summaries.get(item.getId())))
                 .toList();
     }
 
@@ -125,18 +201,22 @@ public class ItemServiceImpl implements ItemService {
     @Transactional(readOnly = true)
     public Collection<ItemDto> searchItem(String text) {
         log.debug("Ищем предметы по краткому описанию.");
-        return itemRepository.findAllByText(text).stream()
-                .map(ItemMapper::mapToItemDto)
-                .toList();
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+
+        return itemSearchEngine.search(text);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ITEMS_CACHE, key = "#itemId")
     public CommentDto createComment(Long userId, Long itemId, CommentDto commentDto) {
         log.debug("Добавляем новый комментарий в базу данных.");
-        // Проверяем существует ли пользователь и предмет
-        User user = isUserExists(userId);
-        Item item = isItemExists(itemId);
+        // Проверяем существует ли пользователь и предмет: имя автора попадает в комментарий, а от предмета нужен
+        // только id
+        User user = userService.getUserById(userId);
+        Item item = getItemReference(itemId);
 
         // Проверяем бронировал ли этот пользователь эту вещь
         if (!bookingRepository.existsByBookerIdAndItemIdAndEndBefore(userId, itemId,
@@ -146,16 +226,64 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Comment comment = commentRepository.save(CommentMapper.mapCommentDtoToComment(user, item, commentDto));
+        CommentDto createdComment = CommentMapper.mapCommentToCommentDto(comment);
+        eventPublisher.publishEvent(new CommentCreatedEvent(createdComment));
         log.debug("Новый комментарий в базу данных был успешно добавлен.");
-        return CommentMapper.mapCommentToCommentDto(comment);
+        return createdComment;
     }
 
-    private LocalDateTime getLastBookingEndDate(Long itemId) {
-        LocalDateTime localDateTime = bookingRepository.findLastBookingEndByItemId(itemId, LocalDateTime.now())
-                .stream()
-                .max(Comparator.naturalOrder())
-                .orElse(null);
+    @Override
+    @Transactional(readOnly = true)
+    public ItemAvailabilityDto getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        log.debug("Получаем календарь занятости предмета.");
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Дата начала периода должна быть раньше даты его окончания.");
+        }
+        // Проверяем существует ли предмет
+        checkItemExists(itemId);
+
+        // Календарь хранит только незавершенные бронирования, поэтому прошедшее время не показываем
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime periodStart = from.isAfter(now) ? from : now;
+        if (!periodStart.isBefore(to)) {
+            return new ItemAvailabilityDto(itemId, periodStart, to, List.of(), List.of());
+        }
 
+        List<AvailabilityIntervalDto> busy = availabilityService.findBusyIntervals(itemId, periodStart, to).stream()
+                .map(interval -> new AvailabilityIntervalDto(interval.getStart(), interval.getEnd(),
+                        interval.getStatus()))
+                .toList();
+
+        log.debug("Календарь занятости предмета успешно получен.");
+        return new ItemAvailabilityDto(itemId, periodStart, to, busy, findFreeIntervals(busy, periodStart, to));
+    }
+
+    private List<AvailabilityIntervalDto> findFreeIntervals(List<AvailabilityIntervalDto> busy,
+                                                            LocalDateTime from, LocalDateTime to) {
+        List<AvailabilityIntervalDto> free = new ArrayList<>(busy.size() + 1);
+        LocalDateTime freeFrom = from;
+
+        // Занятые интервалы отсортированы по началу, свободны промежутки между ними
+        for (AvailabilityIntervalDto interval : busy) {
+            if (interval.getStart().isAfter(freeFrom)) {
+                free.add(new AvailabilityIntervalDto(freeFrom, interval.getStart(), null));
+            }
+            if (interval.getEnd().isAfter(freeFrom)) {
+                freeFrom = interval.getEnd();
+            }
+        }
+        if (freeFrom.isBefore(to)) {
+            free.add(new AvailabilityIntervalDto(freeFrom, to, null));
+        }
+        return free;
+    }
+
+    private ImprovedItemDto mapItemToImprovedItemDto(Item item, ItemSummary summary) {
+        return ItemMapper.mapItemToImprovedItemDto(item, filterLastBookingEndDate(summary.getLastBookingEnd()),
+                summary.getNextBookingStart(), summaryService.getComments(summary));
+    }
+
+    private LocalDateTime filterLastBookingEndDate(LocalDateTime localDateTime) {
         if (localDateTime != null && localDateTime.isAfter(LocalDateTime.now().minusSeconds(5))) {
             return null;
         }
@@ -163,20 +291,34 @@ public class ItemServiceImpl implements ItemService {
         return localDateTime;
     }
 
-    private LocalDateTime getNextBookingStartDate(Long itemId) {
-        return bookingRepository.findNextBookingStartByItemId(itemId, LocalDateTime.now())
-                .stream()
-                .min(Comparator.naturalOrder())
-                .orElse(null);
-    }
-
-    private User isUserExists(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id " + userId + " не найден."));
+    private void checkRequiredFields(ItemDto itemDto) {
+        if (itemDto == null) {
+            throw new ValidationException("Предмет в пакете не может быть равен null.");
+        }
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            throw new ValidationException("Имя предмета не может быть пустым.");
+        }
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
+            throw new ValidationException("Описание предмета не может быть пустым.");
+        }
+        if (itemDto.getAvailable() == null) {
+            throw new ValidationException("Параметр доступности предмета не может быть равен null.");
+        }
     }
 
     private Item isItemExists(Long itemId) {
         return itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Предмет с id " + itemId + " не найден."));
     }
+
+    private void checkItemExists(Long itemId) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Предмет с id " + itemId + " не найден.");
+        }
+    }
+
+    private Item getItemReference(Long itemId) {
+        checkItemExists(itemId);
+        return itemRepository.getReferenceById(itemId);
+    }
 }
@@ -0,0 +1,205 @@
+package ru.practicum.shareit.item.summary;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingDatesDtoShort;
+import ru.practicum.shareit.booking.event.BookingsSavedEvent;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.event.CommentCreatedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.model.ItemSummary;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemSummaryRepository;
+import ru.practicum.shareit.user.event.UserRenamedEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Сводки предметов для чтения: одна строка item_summary на предмет вместо запросов к бронированиям и комментариям.
+// Сводка меняется в транзакции записи бронирования или комментария, а даты бронирований дополнительно
+// пересчитываются при чтении, когда наступает valid_until: начало ближайшего или окончание текущего бронирования.
+// Перед изменением строка сводки блокируется, поэтому параллельные транзакции не затирают изменения друг друга.
+// Имена авторов хранятся в комментариях сводки, после переименования пользователя они строятся заново.
+@Component
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ItemSummaryService {
+    private static final TypeReference<List<CommentDto>> COMMENTS_TYPE = new TypeReference<>() {
+    };
+
+    ItemSummaryRepository summaryRepository;
+    BookingRepository bookingRepository;
+    CommentRepository commentRepository;
+    ObjectMapper objectMapper;
+    CacheManager cacheManager;
+
+    @Autowired
+    public ItemSummaryService(ItemSummaryRepository summaryRepository,
+                              BookingRepository bookingRepository,
+                              CommentRepository commentRepository,
+                              ObjectMapper objectMapper,
+                              CacheManager cacheManager) {
+        this.summaryRepository = summaryRepository;
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+        this.objectMapper = objectMapper;
+        this.cacheManager = cacheManager;
+    }
+
+    // Пересчитанные сводки сохраняет транзакция вызывающего, поэтому она не должна быть readOnly
+    public ItemSummary getSummary(Long itemId) {
+        return getSummaries(List.of(itemId)).get(itemId);
+    }
+
+    public Map<Long, ItemSummary> getSummaries(Collection<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemSummary> summaries = HashMap.newHashMap(itemIds.size());
+        summaryRepository.findAllById(itemIds).forEach(summary -> summaries.put(summary.getItemId(), summary));
+
+        List<Long> outdated = itemIds.stream()
+                .filter(itemId -> isOutdated(summaries.get(itemId), now))
+                .toList();
+        if (!outdated.isEmpty()) {
+            log.debug("Пересчитываем сводки предметов {}.", outdated);
+            refresh(outdated, summaries, now);
+        }
+        return summaries;
+    }
+
+    public List<CommentDto> getComments(ItemSummary summary) {
+        try {
+            return objectMapper.readValue(summary.getComments(), COMMENTS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось прочитать комментарии из сводки предмета с id " +
+                    summary.getItemId() + ".", e);
+        }
+    }
+
+    // Слушатели вызываются синхронно, сводка сохраняется в той же транзакции, что и изменение
+    @EventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        if (event.isCreated()) {
+            summaryRepository.save(new ItemSummary(event.getItem().getId(), null, null, null, 0,
+                    writeComments(List.of()), true));
+        }
+    }
+
+    @EventListener
+    public void onBookingsSaved(BookingsSavedEvent event) {
+        List<Long> itemIds = event.getBookings().stream()
+                .map(booking -> booking.getItem().getId())
+                .distinct()
+                .toList();
+        refresh(itemIds, HashMap.newHashMap(itemIds.size()), LocalDateTime.now());
+    }
+
+    @EventListener
+    public void onCommentCreated(CommentCreatedEvent event) {
+        Long itemId = event.getComment().getItemId();
+        ItemSummary summary = summaryRepository.findForUpdate(itemId).orElse(null);
+        if (summary == null || summary.getComments() == null) {
+            // Сводка еще не построена, комментарий попадет в нее из базы при первом чтении
+            return;
+        }
+        List<CommentDto> comments = new ArrayList<>(getComments(summary));
+        comments.add(event.getComment());
+        summary.setComments(writeComments(comments));
+        summary.setCommentCount(comments.size());
+    }
+
+    // Кэш предметов сбрасывается после коммита, как и при добавлении комментария
+    @EventListener
+    public void onUserRenamed(UserRenamedEvent event) {
+        List<Long> itemIds = commentRepository.findItemIdsByAuthorId(event.getUserId());
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        log.debug("Сбрасываем комментарии в сводках предметов {} после переименования автора.", itemIds);
+        summaryRepository.resetComments(itemIds);
+        Cache items = cacheManager.getCache(CacheConfig.ITEMS_CACHE);
+        itemIds.forEach(items::evict);
+    }
+
+    private boolean isOutdated(ItemSummary summary, LocalDateTime now) {
+        return summary == null
+                || summary.getComments() == null
+                || summary.getValidUntil() != null && !now.isBefore(summary.getValidUntil());
+    }
+
+    // Даты считаются уже под блокировкой и учитывают бронирования всех транзакций, которые держали ее раньше
+    private void refresh(List<Long> itemIds, Map<Long, ItemSummary> summaries, LocalDateTime now) {
+        summaryRepository.findAllForUpdate(itemIds).forEach(summary -> summaries.put(summary.getItemId(), summary));
+        List<Long> missing = itemIds.stream()
+                .filter(itemId -> !summaries.containsKey(itemId))
+                .toList();
+        if (!missing.isEmpty()) {
+            summaryRepository.insertMissing(missing);
+            summaryRepository.findAllForUpdate(missing).forEach(summary -> summaries.put(summary.getItemId(), summary));
+        }
+        Map<Long, BookingDatesDtoShort> bookingDates = bookingRepository.findBookingDatesByItemIds(itemIds, now)
+                .stream()
+                .collect(Collectors.toMap(BookingDatesDtoShort::getItemId, dates -> dates));
+        List<Long> withoutComments = itemIds.stream()
+                .filter(itemId -> summaries.get(itemId).getComments() == null)
+                .toList();
+        Map<Long, List<CommentDto>> comments = withoutComments.isEmpty() ? Map.of() : commentRepository
+                .findAllByItemIdIn(withoutComments).stream()
+                .map(CommentMapper::mapCommentToCommentDto)
+                .collect(Collectors.groupingBy(CommentDto::getItemId));
+
+        // Изменения сводок сохранит сама транзакция
+        for (Long itemId : itemIds) {
+            ItemSummary summary = summaries.get(itemId);
+            setBookingDates(summary, bookingDates.get(itemId));
+            if (summary.getComments() == null) {
+                List<CommentDto> itemComments = comments.getOrDefault(itemId, List.of());
+                summary.setComments(writeComments(itemComments));
+                summary.setCommentCount(itemComments.size());
+            }
+        }
+    }
+
+    private void setBookingDates(ItemSummary summary, BookingDatesDtoShort dates) {
+        if (dates == null) {
+            summary.setLastBookingEnd(null);
+            summary.setNextBookingStart(null);
+            summary.setValidUntil(null);
+            return;
+        }
+        summary.setLastBookingEnd(dates.getLastEnd());
+        summary.setNextBookingStart(dates.getNextStart());
+        summary.setValidUntil(earliest(dates.getNextStart(), dates.getNextEnd()));
+    }
+
+    private LocalDateTime earliest(LocalDateTime first, LocalDateTime second) {
+        if (first == null || second == null) {
+            return first == null ? second : first;
+        }
+        return first.isBefore(second) ? first : second;
+    }
+
+    private String writeComments(List<CommentDto> comments) {
+        try {
+            return objectMapper.writeValueAsString(comments);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось записать комментарии в сводку предмета.", e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.metrics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+// Вложенный счетчик событий текущего потока. Событие засчитывается открытому Scope и всем внешним по его ключу,
+// закрытие возвращает потоку внешний Scope. Счетчики SQL-запросов и загрузок сущностей различаются только ключами
+public abstract class CountingScope<S extends CountingScope<S>> implements AutoCloseable {
+    private final ThreadLocal<S> current;
+    private final S parent;
+    private final Map<String, Integer> counts = new HashMap<>();
+    private int count;
+
+    protected CountingScope(ThreadLocal<S> current) {
+        this.current = current;
+        this.parent = current.get();
+    }
+
+    static <S extends CountingScope<S>> S open(ThreadLocal<S> current, S scope) {
+        current.set(scope);
+        return scope;
+    }
+
+    static void record(ThreadLocal<? extends CountingScope<?>> current, String key) {
+        for (CountingScope<?> scope = current.get(); scope != null; scope = scope.parent) {
+            scope.count++;
+            scope.counts.merge(key, 1, Integer::sum);
+        }
+    }
+
+    public int count() {
+        return count;
+    }
+
+    protected Map<String, Integer> counts() {
+        return Collections.unmodifiableMap(counts);
+    }
+
+    @Override
+    public void close() {
+        if (parent == null) {
+            current.remove();
+        } else {
+            current.set(parent);
+        }
+    }
+}
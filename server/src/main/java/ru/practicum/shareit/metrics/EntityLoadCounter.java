@@ -0,0 +1,34 @@
+package ru.practicum.shareit.metrics;
+
+// Счетчик сущностей, загруженных текущим потоком из базы или из кэша второго уровня. Загрузки считает
+// EntityLoadListener, пока открыт Scope: фильтр открывает его на каждый HTTP-запрос вместе со счетчиком SQL-запросов,
+// в тестах его можно открыть вокруг проверяемого вызова. Ссылки getReferenceById загрузкой не считаются
+public final class EntityLoadCounter {
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private EntityLoadCounter() {
+    }
+
+    public static Scope start() {
+        return CountingScope.open(CURRENT, new Scope());
+    }
+
+    public static Scope current() {
+        return CURRENT.get();
+    }
+
+    static void record(String entityName) {
+        CountingScope.record(CURRENT, entityName);
+    }
+
+    // Загрузки считаются по именам классов сущностей
+    public static final class Scope extends CountingScope<Scope> {
+        private Scope() {
+            super(CURRENT);
+        }
+
+        public int count(Class<?> entityClass) {
+            return counts().getOrDefault(entityClass.getName(), 0);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.metrics;
+
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+
+public class EntityLoadListener implements PostLoadEventListener {
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        EntityLoadCounter.record(event.getPersister().getEntityName());
+    }
+}
@@ -0,0 +1,158 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.experimental.FieldDefaults;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.DuplicatedDataException;
+import ru.practicum.shareit.exception.ForbiddenAccessException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import static lombok.AccessLevel.PRIVATE;
+
+// Таймеры вызовов сервисов и репозиториев с исходом вызова и счетчик строк, которые вернули запросы репозиториев.
+// Аспект снаружи транзакции и кэша, поэтому в длительность метода сервиса входят коммит и попадания в кэш
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class MetricsAspect {
+    public static final String SERVICE_TIMER = "shareit.service";
+    public static final String REPOSITORY_TIMER = "shareit.repository";
+    public static final String REPOSITORY_ROWS = "shareit.repository.rows";
+
+    MeterRegistry meterRegistry;
+    Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Autowired
+    public MetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * ru.practicum.shareit..service.*ServiceImpl.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        String service = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Object result = joinPoint.proceed();
+            stop(sample, SERVICE_TIMER, "service", service, method, "ok");
+            return result;
+        } catch (Throwable e) {
+            stop(sample, SERVICE_TIMER, "service", service, method, outcome(e));
+            throw e;
+        }
+    }
+
+    // Методы CrudRepository объявлены не в наших интерфейсах, поэтому имя репозитория берется из интерфейсов прокси
+    @Around("this(org.springframework.data.repository.Repository) "
+            + "&& execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = repositoryNames.computeIfAbsent(joinPoint.getThis().getClass(),
+                proxyClass -> repositoryName(joinPoint.getThis()));
+        String method = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Object result = joinPoint.proceed();
+            stop(sample, REPOSITORY_TIMER, "repository", repository, method, "ok");
+            return countRows(repository, method, result);
+        } catch (Throwable e) {
+            stop(sample, REPOSITORY_TIMER, "repository", repository, method, outcome(e));
+            throw e;
+        }
+    }
+
+    private void stop(Timer.Sample sample, String name, String ownerTag, String owner, String method,
+                      String outcome) {
+        sample.stop(Timer.builder(name)
+                .tag(ownerTag, owner)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    // Строки потока считаются по мере чтения и добавляются к счетчику при закрытии потока,
+    // таймер такого метода измеряет только выполнение запроса
+    private Object countRows(String repository, String method, Object result) {
+        if (result instanceof Stream<?> stream) {
+            LongAdder rows = new LongAdder();
+            return stream.peek(row -> rows.increment())
+                    .onClose(() -> rowsCounter(repository, method).increment(rows.sum()));
+        }
+        long rows = rows(result);
+        if (rows >= 0) {
+            rowsCounter(repository, method).increment(rows);
+        }
+        return result;
+    }
+
+    private Counter rowsCounter(String repository, String method) {
+        return Counter.builder(REPOSITORY_ROWS)
+                .tag("repository", repository)
+                .tag("method", method)
+                .register(meterRegistry);
+    }
+
+    // Количество строк в результате запроса, -1 для результатов, которые не являются строками: count, exists, void
+    private static long rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number || result instanceof Boolean) {
+            return -1;
+        }
+        return 1;
+    }
+
+    private static String outcome(Throwable e) {
+        if (e instanceof NotFoundException) {
+            return "not_found";
+        }
+        if (e instanceof ValidationException) {
+            return "validation";
+        }
+        if (e instanceof ForbiddenAccessException) {
+            return "forbidden";
+        }
+        if (e instanceof DuplicatedDataException || e instanceof DataIntegrityViolationException) {
+            return "conflict";
+        }
+        return "error";
+    }
+
+    private static String repositoryName(Object proxy) {
+        for (Class<?> repositoryInterface : AopProxyUtils.proxiedUserInterfaces(proxy)) {
+            if (repositoryInterface.getPackageName().startsWith("ru.practicum.shareit")) {
+                return repositoryInterface.getSimpleName();
+            }
+        }
+        return proxy.getClass().getSimpleName();
+    }
+}
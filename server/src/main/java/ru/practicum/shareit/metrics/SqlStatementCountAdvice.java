@@ -0,0 +1,35 @@
+package ru.practicum.shareit.metrics;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+// Записанное тело фиксирует заголовки, поэтому число SQL-запросов и загруженных сущностей выставляется
+// непосредственно перед записью
+@ControllerAdvice
+public class SqlStatementCountAdvice implements ResponseBodyAdvice<Object> {
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlStatementCounter.Scope scope = SqlStatementCounter.current();
+        if (scope != null) {
+            response.getHeaders().set(SqlStatementCountingFilter.HEADER, String.valueOf(scope.count()));
+        }
+        EntityLoadCounter.Scope entityScope = EntityLoadCounter.current();
+        if (entityScope != null) {
+            response.getHeaders().set(SqlStatementCountingFilter.ENTITY_LOAD_HEADER,
+                    String.valueOf(entityScope.count()));
+        }
+        return body;
+    }
+}
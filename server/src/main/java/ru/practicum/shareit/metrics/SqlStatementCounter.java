@@ -0,0 +1,53 @@
+package ru.practicum.shareit.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// Счетчик SQL-запросов текущего потока. Запросы считает SqlStatementInspector, пока открыт Scope:
+// фильтр открывает его на каждый HTTP-запрос, в тестах его можно открыть вокруг проверяемого вызова
+public final class SqlStatementCounter {
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SqlStatementCounter() {
+    }
+
+    public static Scope start() {
+        return CountingScope.open(CURRENT, new Scope());
+    }
+
+    public static Scope current() {
+        return CURRENT.get();
+    }
+
+    static void record(String sql) {
+        if (CURRENT.get() != null) {
+            CountingScope.record(CURRENT, shape(sql));
+        }
+    }
+
+    // Форма запроса: SQL без лишних пробелов и с одинаковыми списками IN (?, ?, ...) независимо от их длины
+    static String shape(String sql) {
+        return IN_LIST.matcher(WHITESPACE.matcher(sql.trim()).replaceAll(" ")).replaceAll("(?)");
+    }
+
+    // Запросы считаются по их формам
+    public static final class Scope extends CountingScope<Scope> {
+        private Scope() {
+            super(CURRENT);
+        }
+
+        // Формы запросов, которые выполнились больше threshold раз, с числом повторов
+        public Map<String, Integer> repeated(int threshold) {
+            Map<String, Integer> repeated = new LinkedHashMap<>();
+            counts().forEach((shape, times) -> {
+                if (times > threshold) {
+                    repeated.put(shape, times);
+                }
+            });
+            return repeated;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static lombok.AccessLevel.PRIVATE;
+
+// Считает SQL-запросы каждого HTTP-запроса: метрика shareit.http.sql.statements, заголовок ответа
+// и предупреждение о возможной проблеме N+1, когда запрос одной формы повторяется больше порога.
+// Загруженные сущности считаются так же: метрика shareit.http.entities.loaded и свой заголовок ответа
+@Component
+@Slf4j
+@FieldDefaults(level = PRIVATE, makeFinal = true)
+public class SqlStatementCountingFilter extends OncePerRequestFilter {
+    public static final String HEADER = "X-Sql-Statement-Count";
+    public static final String ENTITY_LOAD_HEADER = "X-Entity-Load-Count";
+    public static final String STATEMENTS_SUMMARY = "shareit.http.sql.statements";
+    public static final String REPEATED_COUNTER = "shareit.http.sql.repeated";
+    public static final String ENTITY_LOADS_SUMMARY = "shareit.http.entities.loaded";
+
+    // В срезах @WebMvcTest реестра метрик нет
+    MeterRegistry meterRegistry;
+    int repeatThreshold;
+
+    @Autowired
+    public SqlStatementCountingFilter(ObjectProvider<MeterRegistry> meterRegistry,
+                                      @Value("${shareit.sql.repeat-threshold:5}") int repeatThreshold) {
+        this.meterRegistry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.start();
+             EntityLoadCounter.Scope entityScope = EntityLoadCounter.start()) {
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                // Заголовки ответа с телом выставляет SqlStatementCountAdvice до записи тела
+                if (!response.isCommitted()) {
+                    response.setHeader(HEADER, String.valueOf(scope.count()));
+                    response.setHeader(ENTITY_LOAD_HEADER, String.valueOf(entityScope.count()));
+                }
+                record(request, scope, entityScope);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementCounter.Scope scope,
+                        EntityLoadCounter.Scope entityScope) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        DistributionSummary.builder(STATEMENTS_SUMMARY)
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(scope.count());
+        DistributionSummary.builder(ENTITY_LOADS_SUMMARY)
+                .baseUnit("entities")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(entityScope.count());
+
+        Map<String, Integer> repeated = scope.repeated(repeatThreshold);
+        if (repeated.isEmpty()) {
+            return;
+        }
+        Counter.builder(REPEATED_COUNTER)
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .increment();
+        repeated.forEach((shape, times) -> log.warn("Возможна проблема N+1: {} {} выполнил {} раз запрос {}",
+                request.getMethod(), uri, times, shape));
+    }
+}
@@ -3,11 +3,17 @@ package ru.practicum.shareit.request.model;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 
+// Запросы после создания не меняются, поэтому кэш второго уровня хранит их без блокировок
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = CacheConfig.REQUESTS_REGION)
 @Table(name = "requests")
 @EqualsAndHashCode(of = {"id"})
 @Getter
@@ -18,7 +24,8 @@ import java.time.LocalDateTime;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class ItemRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq", allocationSize = 50)
     Long id;
 
     @Column(name = "description", nullable = false)
@@ -1,12 +1,26 @@
 package ru.practicum.shareit.request.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Collection<ItemRequest> findAllByRequesterIdOrderByCreatedDesc(Long userId);
 
-    Collection<ItemRequest> findAllByRequesterIdNotOrderByCreatedDesc(Long userId);
+    // Лента идет по индексу idx_requests_created_id от новых запросов к старым и продолжается после курсора
+    @Query("select r " +
+            "from ItemRequest as r " +
+            "where r.requester.id <> ?1 " +
+            "and (?2 is null or r.created < ?2 or (r.created = ?2 and r.id < ?3)) " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequest> findOtherUsersRequests(Long userId, LocalDateTime cursorCreated, Long cursorId, Limit limit);
 }
@@ -3,6 +3,7 @@ package ru.practicum.shareit.request.service;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoWithAnswers;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestService {
@@ -10,7 +11,7 @@ public interface ItemRequestService {
 
     List<ItemRequestDtoWithAnswers> getAllUserRequests(Long userId);
 
-    List<ItemRequestDto> getAllRequests(Long userId);
+    List<ItemRequestDto> getAllRequests(Long userId, LocalDateTime cursorCreated, Long cursorId, int size);
 
     ItemRequestDtoWithAnswers getRequestById(Long requestId);
 }
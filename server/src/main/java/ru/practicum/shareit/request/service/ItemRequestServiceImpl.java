@@ -4,9 +4,12 @@ import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDtoShort;
+import ru.practicum.shareit.item.dto.RequestAnswerDto;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoWithAnswers;
@@ -14,23 +17,29 @@ import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Slf4j
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class ItemRequestServiceImpl implements ItemRequestService {
-    UserRepository userRepository;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    UserService userService;
     ItemRequestRepository itemRequestRepository;
     ItemRepository itemRepository;
 
     @Autowired
-    public ItemRequestServiceImpl(UserRepository userRepository, ItemRequestRepository itemRequestRepository,
+    public ItemRequestServiceImpl(UserService userService, ItemRequestRepository itemRequestRepository,
                                   ItemRepository itemRepository) {
-        this.userRepository = userRepository;
+        this.userService = userService;
         this.itemRequestRepository = itemRequestRepository;
         this.itemRepository = itemRepository;
     }
@@ -38,10 +47,8 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     public ItemRequestDto create(ItemRequestDto itemRequestDto, Long userId) {
         log.debug("Создаем новую запись о запросе на добавление предмета.");
-        // проверяем существует ли пользователь
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format("Ошибка при добавлении запроса на добавление " +
-                        "предмета. Пользователь с id %d не найден", userId)));
+        // проверяем существует ли пользователь, от автора запросу нужен только id
+        User user = userService.getUserReference(userId);
 
         ItemRequest itemRequest = itemRequestRepository.save(ItemRequestMapper.mapRequestDtoToRequest(user,
                 itemRequestDto));
@@ -53,33 +60,44 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     public List<ItemRequestDtoWithAnswers> getAllUserRequests(Long userId) {
         log.debug("Получаем список всех запросов на добавление предмета определенного пользователя.");
-        // проверяем существует ли пользователь
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format("Ошибка при получении всех запросов на " +
-                        "добавление предмета. Пользователь с id %d не найден", userId)));
-
         Collection<ItemRequest> requests = itemRequestRepository.findAllByRequesterIdOrderByCreatedDesc(userId);
 
+        // запросы есть только у существующего пользователя, поэтому проверяем его, только если запросов нет
+        if (requests.isEmpty()) {
+            userService.checkUserExists(userId);
+            return List.of();
+        }
+
+        // ответы на все запросы получаем одним запросом и группируем по id запроса
+        Map<Long, List<ItemDtoShort>> answers = HashMap.newHashMap(requests.size());
+        for (RequestAnswerDto answer : itemRepository.findAllByRequestIdIn(requests.stream()
+                .map(ItemRequest::getId)
+                .toList())) {
+            answers.computeIfAbsent(answer.getRequestId(), requestId -> new ArrayList<>()).add(answer);
+        }
+
         log.debug("Список всех запросов определенного пользователя на добавление предмета успешно получен.");
         return requests.stream()
-                .map(request -> {
-                    Collection<ItemDtoShort> items = itemRepository.findAllByRequestId(request.getId());
-                    return ItemRequestMapper.mapRequestToRequestDtoWithAnswers(request, items);
-                }).toList();
+                .map(request -> ItemRequestMapper.mapRequestToRequestDtoWithAnswers(request,
+                        answers.getOrDefault(request.getId(), List.of())))
+                .toList();
     }
 
     @Override
-    public List<ItemRequestDto> getAllRequests(Long userId) {
-        log.debug("Получаем список всех запросов на добавление предмета.");
+    public List<ItemRequestDto> getAllRequests(Long userId, LocalDateTime cursorCreated, Long cursorId, int size) {
+        log.debug("Получаем страницу запросов на добавление предмета других пользователей.");
+        if (size < 1) {
+            throw new ValidationException("Размер страницы должен быть больше нуля.");
+        }
 
         // проверяем существует ли пользователь
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format("Ошибка при получении всех запросов на " +
-                        "добавление предмета. Пользователь с id %d не найден", userId)));
+        userService.checkUserExists(userId);
 
-        Collection<ItemRequest> requests = itemRequestRepository.findAllByRequesterIdNotOrderByCreatedDesc(userId);
+        // Без id курсора продолжаем выборку со всех запросов, созданных в то же время
+        List<ItemRequest> requests = itemRequestRepository.findOtherUsersRequests(userId, cursorCreated,
+                cursorId != null ? cursorId : Long.MAX_VALUE, Limit.of(Math.min(size, MAX_PAGE_SIZE)));
 
-        log.debug("Список всех запросов на добавление предмета успешно получен.");
+        log.debug("Страница запросов на добавление предмета успешно получена.");
         return requests.stream().map(ItemRequestMapper::mapRequestToRequestDto).toList();
     }
 
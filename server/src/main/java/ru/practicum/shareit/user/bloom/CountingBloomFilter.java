@@ -0,0 +1,140 @@
+package ru.practicum.shareit.user.bloom;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.ToLongFunction;
+
+// Счетный фильтр Блума: вместо битов 4-битные счетчики, поэтому элементы можно не только добавлять, но и удалять.
+// Ответ "нет" точный, ответ "возможно" ошибается с заданной вероятностью, пока элементов не больше расчетного числа.
+// Счетчики упакованы по 16 в long и меняются через CAS, так что проверки идут без блокировок. Насыщенный счетчик
+// больше не меняется: после удаления он дает только лишние "возможно", но не ложное "нет".
+public class CountingBloomFilter<T> {
+    private static final int COUNTER_BITS = 4;
+    private static final int COUNTERS_PER_WORD = Long.SIZE / COUNTER_BITS;
+    private static final long COUNTER_MAX = (1L << COUNTER_BITS) - 1;
+    private static final long LOW_COUNTER_BITS = 0x1111111111111111L;
+
+    private final AtomicLongArray words;
+    private final int counters;
+    private final int hashes;
+    private final ToLongFunction<T> hasher;
+
+    public CountingBloomFilter(long expectedElements, double falsePositiveRate, ToLongFunction<T> hasher) {
+        if (expectedElements <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Неверные параметры фильтра Блума: элементов " + expectedElements +
+                    ", вероятность ошибки " + falsePositiveRate + ".");
+        }
+        double ln2 = Math.log(2);
+        long optimalCounters = (long) Math.ceil(-expectedElements * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.counters = (int) Math.min(Integer.MAX_VALUE - COUNTERS_PER_WORD, Math.max(COUNTERS_PER_WORD,
+                optimalCounters));
+        this.hashes = Math.max(1, (int) Math.round((double) counters / expectedElements * ln2));
+        this.words = new AtomicLongArray((counters + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD);
+        this.hasher = hasher;
+    }
+
+    public void add(T element) {
+        long hash = hasher.applyAsLong(element);
+        for (int i = 0; i < hashes; i++) {
+            increment(index(hash, i));
+        }
+    }
+
+    // Удалять можно только добавленный ранее элемент, иначе уменьшатся счетчики чужих элементов
+    public void remove(T element) {
+        long hash = hasher.applyAsLong(element);
+        for (int i = 0; i < hashes; i++) {
+            decrement(index(hash, i));
+        }
+    }
+
+    public boolean mightContain(T element) {
+        long hash = hasher.applyAsLong(element);
+        for (int i = 0; i < hashes; i++) {
+            if (counter(index(hash, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Ожидаемая доля ложных "возможно" при текущем заполнении: вероятность, что все счетчики элемента ненулевые
+    public double expectedFalsePositiveRate() {
+        long nonZero = 0;
+        for (int i = 0; i < words.length(); i++) {
+            long word = words.get(i);
+            word |= word >>> 1;
+            word |= word >>> 2;
+            nonZero += Long.bitCount(word & LOW_COUNTER_BITS);
+        }
+        return Math.pow((double) nonZero / counters, hashes);
+    }
+
+    public int getCounters() {
+        return counters;
+    }
+
+    public int getHashes() {
+        return hashes;
+    }
+
+    public static long hash(Long value) {
+        return mix(value);
+    }
+
+    // FNV-1a по байтам UTF-8 и перемешивание, чтобы близкие строки давали далекие индексы
+    public static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    // Двойное хеширование: i-й индекс строится из двух половин одного 64-битного хеша
+    private int index(long hash, int i) {
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        return Math.floorMod(first + i * second, counters);
+    }
+
+    private long counter(int index) {
+        return (words.get(index / COUNTERS_PER_WORD) >>> shift(index)) & COUNTER_MAX;
+    }
+
+    private void increment(int index) {
+        int word = index / COUNTERS_PER_WORD;
+        int shift = shift(index);
+        long current;
+        do {
+            current = words.get(word);
+            if (((current >>> shift) & COUNTER_MAX) == COUNTER_MAX) {
+                return;
+            }
+        } while (!words.compareAndSet(word, current, current + (1L << shift)));
+    }
+
+    private void decrement(int index) {
+        int word = index / COUNTERS_PER_WORD;
+        int shift = shift(index);
+        long current;
+        do {
+            current = words.get(word);
+            long counter = (current >>> shift) & COUNTER_MAX;
+            if (counter == 0 || counter == COUNTER_MAX) {
+                return;
+            }
+        } while (!words.compareAndSet(word, current, current - (1L << shift)));
+    }
+
+    private static int shift(int index) {
+        return (index % COUNTERS_PER_WORD) * COUNTER_BITS;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+}
@@ -0,0 +1,167 @@
+package ru.practicum.shareit.user.bloom;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.user.dto.UserKeysDto;
+import ru.practicum.shareit.user.event.UserCreatedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.event.UserEmailChangedEvent;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+// Фильтры Блума известных id и email пользователей: ответ "нет" позволяет не ходить в базу, чтобы узнать, что
+// пользователя нет или email свободен. Добавление происходит сразу, еще до коммита, а удаление только после
+// коммита, поэтому откат транзакции может дать лишнее "возможно", но не ложное "нет". Пока фильтры не построены
+// при старте, все проверки идут в базу. Фильтры видят только изменения своего процесса, поэтому при нескольких
+// экземплярах сервера над одной базой их нужно выключить (shareit.users.bloom.enabled=false).
+@Component
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class UserBloomFilter {
+    public static final String CHECKS_COUNTER = "shareit.users.bloom.checks";
+    public static final String FALSE_POSITIVE_RATE = "shareit.users.bloom.false.positive.rate";
+    public static final String EXPECTED_FALSE_POSITIVE_RATE = "shareit.users.bloom.expected.false.positive.rate";
+
+    UserRepository userRepository;
+    boolean enabled;
+    Membership<Long> ids;
+    Membership<String> emails;
+    @NonFinal
+    volatile boolean ready = false;
+
+    @Autowired
+    public UserBloomFilter(UserRepository userRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.users.bloom.enabled:true}") boolean enabled,
+                           @Value("${shareit.users.bloom.expected-users:100000}") long expectedUsers,
+                           @Value("${shareit.users.bloom.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.ids = new Membership<>("id", expectedUsers, falsePositiveRate, CountingBloomFilter::hash,
+                meterRegistry);
+        this.emails = new Membership<>("email", expectedUsers, falsePositiveRate, CountingBloomFilter::hash,
+                meterRegistry);
+    }
+
+    public boolean mightContainId(Long userId) {
+        return userId == null || ids.mightContain(userId);
+    }
+
+    public boolean mightContainEmail(String email) {
+        return email == null || emails.mightContain(email);
+    }
+
+    // База не нашла пользователя или email, о которых фильтр ответил "возможно"
+    public void recordIdFalsePositive() {
+        ids.falsePositives.increment();
+    }
+
+    public void recordEmailFalsePositive() {
+        emails.falsePositives.increment();
+    }
+
+    // Пользователи, добавленные во время построения, могут попасть в фильтр дважды: это лишь лишнее "возможно"
+    // после их удаления
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        log.debug("Строим фильтры Блума пользователей.");
+        List<UserKeysDto> users = userRepository.findAllKeys();
+        for (UserKeysDto user : users) {
+            ids.filter.add(user.getId());
+            emails.filter.add(user.getEmail());
+        }
+        ready = true;
+        log.debug("Фильтры Блума пользователей построены: {} пользователей, {} счетчиков и {} хешей на фильтр.",
+                users.size(), ids.filter.getCounters(), ids.filter.getHashes());
+    }
+
+    @EventListener
+    public void onUserCreated(UserCreatedEvent event) {
+        ids.filter.add(event.getUserId());
+        emails.filter.add(event.getEmail());
+    }
+
+    @EventListener
+    public void onEmailChanged(UserEmailChangedEvent event) {
+        emails.filter.add(event.getNewEmail());
+    }
+
+    // Удаленные до построения фильтров ключи могли в них не попасть, а удалять недобавленное нельзя
+    @TransactionalEventListener
+    public void onEmailChangeCommitted(UserEmailChangedEvent event) {
+        if (ready) {
+            emails.filter.remove(event.getOldEmail());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        if (ready) {
+            ids.filter.remove(event.getUserId());
+            emails.filter.remove(event.getEmail());
+        }
+    }
+
+    // Фильтр одного ключа с метриками: absent - база не понадобилась, present - ответ "возможно",
+    // false_positive - "возможно", которое не подтвердила база
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private class Membership<T> {
+        CountingBloomFilter<T> filter;
+        Counter absent;
+        Counter present;
+        Counter falsePositives;
+
+        Membership(String key, long expectedUsers, double falsePositiveRate, ToLongFunction<T> hasher,
+                   MeterRegistry meterRegistry) {
+            this.filter = new CountingBloomFilter<>(expectedUsers, falsePositiveRate, hasher);
+            this.absent = checks(key, "absent", meterRegistry);
+            this.present = checks(key, "present", meterRegistry);
+            this.falsePositives = checks(key, "false_positive", meterRegistry);
+            Gauge.builder(FALSE_POSITIVE_RATE, this, Membership::falsePositiveRate)
+                    .tag("filter", key)
+                    .register(meterRegistry);
+            Gauge.builder(EXPECTED_FALSE_POSITIVE_RATE, filter, CountingBloomFilter::expectedFalsePositiveRate)
+                    .tag("filter", key)
+                    .register(meterRegistry);
+        }
+
+        boolean mightContain(T element) {
+            if (!ready) {
+                return true;
+            }
+            boolean mightContain = filter.mightContain(element);
+            (mightContain ? present : absent).increment();
+            return mightContain;
+        }
+
+        double falsePositiveRate() {
+            double negatives = falsePositives.count() + absent.count();
+            return negatives == 0 ? 0 : falsePositives.count() / negatives;
+        }
+
+        private static Counter checks(String key, String result, MeterRegistry meterRegistry) {
+            return Counter.builder(CHECKS_COUNTER)
+                    .tag("filter", key)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.user.event;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class UserEmailChangedEvent {
+    String oldEmail;
+    String newEmail;
+}
@@ -10,5 +10,11 @@ public interface UserService {
 
     User getUserById(Long userId);
 
+    // Проверка существования пользователя без загрузки сущности
+    void checkUserExists(Long userId);
+
+    // Ссылка на существующего пользователя для связей новых записей, сама сущность не загружается
+    User getUserReference(Long userId);
+
     void delete(Long userId);
 }
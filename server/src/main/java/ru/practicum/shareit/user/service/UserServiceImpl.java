@@ -4,33 +4,45 @@ import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.bloom.UserBloomFilter;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.exception.DuplicatedDataException;
+import ru.practicum.shareit.user.event.UserCreatedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.event.UserEmailChangedEvent;
+import ru.practicum.shareit.user.event.UserRenamedEvent;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
-import java.util.Optional;
-
 @Service
 @Slf4j
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class UserServiceImpl implements UserService {
     UserRepository userRepository;
+    UserBloomFilter userBloomFilter;
+    ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository,
+                           UserBloomFilter userBloomFilter,
+                           ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
+        this.userBloomFilter = userBloomFilter;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     @Transactional
     public User create(UserDto user) {
         log.debug("Добавляем нового пользователя в базу данных.");
-        return userRepository.save(UserMapper.mapUserDtoToUser(null, user));
+        User createdUser = userRepository.save(UserMapper.mapUserDtoToUser(null, user));
+        eventPublisher.publishEvent(new UserCreatedEvent(createdUser.getId(), createdUser.getEmail()));
+        return createdUser;
     }
 
     @Override
@@ -40,29 +52,74 @@ public class UserServiceImpl implements UserService {
         // Проверяем существует ли пользователь
         User user = getUserById(userId);
 
-        // Проверяем существует ли email
-        Optional<User> userToCheck = userRepository.findByEmail(userDto.getEmail());
-        if (userToCheck.isPresent() && !userToCheck.get().getEmail().equals(user.getEmail())) {
-            throw new DuplicatedDataException("Ошибка при обновлении данных пользователя. Email уже существует.");
+        // Проверяем существует ли email, в базу идем, только если фильтр Блума его не исключил
+        String oldEmail = user.getEmail();
+        String newEmail = userDto.getEmail();
+        boolean emailChanged = newEmail != null && !newEmail.isBlank() && !newEmail.equals(oldEmail);
+        if (emailChanged && userBloomFilter.mightContainEmail(newEmail)) {
+            if (userRepository.findByEmail(newEmail).isPresent()) {
+                throw new DuplicatedDataException("Ошибка при обновлении данных пользователя. Email уже существует.");
+            }
+            userBloomFilter.recordEmailFalsePositive();
         }
 
+        String newName = userDto.getName();
+        boolean nameChanged = newName != null && !newName.isBlank() && !newName.equals(user.getName());
+
+        User updatedUser = userRepository.save(UserMapper.updateUserData(user, userDto));
+        if (emailChanged) {
+            eventPublisher.publishEvent(new UserEmailChangedEvent(oldEmail, newEmail));
+        }
+        if (nameChanged) {
+            eventPublisher.publishEvent(new UserRenamedEvent(userId));
+        }
         log.debug("Данные о пользователе были успешно обновлены.");
-        return userRepository.save(UserMapper.updateUserData(user, userDto));
+        return updatedUser;
     }
 
     @Override
     @Transactional(readOnly = true)
     public User getUserById(Long userId) {
         log.debug("Получаем данные пользователя по его id.");
+        if (!userBloomFilter.mightContainId(userId)) {
+            throw new NotFoundException("Пользователь с id " + userId + " не найден.");
+        }
         return userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id " + userId + " не найден."));
+                .orElseThrow(() -> {
+                    userBloomFilter.recordIdFalsePositive();
+                    return new NotFoundException("Пользователь с id " + userId + " не найден.");
+                });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void checkUserExists(Long userId) {
+        // Фильтр Блума отсекает несуществующих пользователей без базы, остальных проверяем по первичному ключу
+        if (!userBloomFilter.mightContainId(userId)) {
+            throw new NotFoundException("Пользователь с id " + userId + " не найден.");
+        }
+        if (!userRepository.existsById(userId)) {
+            userBloomFilter.recordIdFalsePositive();
+            throw new NotFoundException("Пользователь с id " + userId + " не найден.");
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public User getUserReference(Long userId) {
+        checkUserExists(userId);
+        return userRepository.getReferenceById(userId);
     }
 
     @Override
     @Transactional
     public void delete(Long userId) {
         log.debug("Удаляем пользователя из базы данных.");
-        userRepository.deleteById(userId);
+        // Email нужен, чтобы после коммита убрать его из фильтра Блума
+        userRepository.findById(userId).ifPresent(user -> {
+            userRepository.delete(user);
+            eventPublisher.publishEvent(new UserDeletedEvent(user.getId(), user.getEmail()));
+        });
     }
 
 }
@@ -0,0 +1,17 @@
+-- Ближайшие и последние бронирования вещей, календарь занятости вещи
+CREATE INDEX IF NOT EXISTS idx_bookings_item_id_start ON bookings (item_id, start);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_id_end ON bookings (item_id, end_of_booking);
+
+-- Лента бронирований арендатора: все бронирования по порядку ключа и отбор по статусу
+CREATE INDEX IF NOT EXISTS idx_bookings_user_id_start ON bookings (user_id, start, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_user_id_status ON bookings (user_id, status);
+
+-- Вещи владельца и ответы на запросы
+CREATE INDEX IF NOT EXISTS idx_items_user_id ON items (user_id);
+CREATE INDEX IF NOT EXISTS idx_items_request_id ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item_id ON comments (item_id);
+
+-- Свои запросы пользователя и общая лента запросов от новых к старым
+CREATE INDEX IF NOT EXISTS idx_requests_user_id_created ON requests (user_id, created);
+CREATE INDEX IF NOT EXISTS idx_requests_created_id ON requests (created DESC, id DESC);
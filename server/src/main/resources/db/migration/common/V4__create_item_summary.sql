@@ -0,0 +1,13 @@
+-- Сводка предмета для чтения: даты последнего и ближайшего бронирований, число и список комментариев в JSON.
+-- valid_until - момент, после которого даты бронирований нужно пересчитать, comments равен null,
+-- пока сводка не построена
+CREATE TABLE IF NOT EXISTS item_summary (
+    item_id BIGINT NOT NULL,
+    last_booking_end TIMESTAMP,
+    next_booking_start TIMESTAMP,
+    valid_until TIMESTAMP,
+    comment_count INTEGER DEFAULT 0 NOT NULL,
+    comments VARCHAR,
+    CONSTRAINT pk_item_summary PRIMARY KEY (item_id),
+    CONSTRAINT fk_item_summary FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE
+);
@@ -0,0 +1,8 @@
+-- Последовательности идентификаторов с шагом 50: Hibernate выделяет id блоками без обращения к базе
+-- на каждую вставку и может отправлять вставки пакетами. Значениями по умолчанию колонок id последовательности
+-- становятся в V6, за id уже вставленных строк их сдвигает миграция R__align_id_sequences
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,9 @@
+-- Следующий блок идентификаторов начинается после наибольшего id таблицы: Hibernate отдает id
+-- от значения последовательности минус 49 до самого значения. Сдвиг нужен для строк, вставленных с явным id,
+-- в том числе до V5. Flyway выполняет повторяемую миграцию заново только при изменении этого файла.
+-- Последовательность только растет, поэтому блоки, уже выделенные работающим приложением, повторно не выдаются
+ALTER SEQUENCE users_seq RESTART WITH (SELECT GREATEST(NEXT VALUE FOR users_seq, COALESCE(MAX(id), 0) + 50) FROM users);
+ALTER SEQUENCE requests_seq RESTART WITH (SELECT GREATEST(NEXT VALUE FOR requests_seq, COALESCE(MAX(id), 0) + 50) FROM requests);
+ALTER SEQUENCE items_seq RESTART WITH (SELECT GREATEST(NEXT VALUE FOR items_seq, COALESCE(MAX(id), 0) + 50) FROM items);
+ALTER SEQUENCE bookings_seq RESTART WITH (SELECT GREATEST(NEXT VALUE FOR bookings_seq, COALESCE(MAX(id), 0) + 50) FROM bookings);
+ALTER SEQUENCE comments_seq RESTART WITH (SELECT GREATEST(NEXT VALUE FOR comments_seq, COALESCE(MAX(id), 0) + 50) FROM comments);
@@ -0,0 +1,9 @@
+-- Следующий блок идентификаторов начинается после наибольшего id таблицы: Hibernate отдает id
+-- от значения последовательности минус 49 до самого значения. Сдвиг нужен для строк, вставленных с явным id,
+-- в том числе до V5. Flyway выполняет повторяемую миграцию заново только при изменении этого файла.
+-- Последовательность только растет, поэтому блоки, уже выделенные работающим приложением, повторно не выдаются
+SELECT setval('users_seq', GREATEST(nextval('users_seq'), (SELECT COALESCE(MAX(id), 0) + 50 FROM users)), false);
+SELECT setval('requests_seq', GREATEST(nextval('requests_seq'), (SELECT COALESCE(MAX(id), 0) + 50 FROM requests)), false);
+SELECT setval('items_seq', GREATEST(nextval('items_seq'), (SELECT COALESCE(MAX(id), 0) + 50 FROM items)), false);
+SELECT setval('bookings_seq', GREATEST(nextval('bookings_seq'), (SELECT COALESCE(MAX(id), 0) + 50 FROM bookings)), false);
+SELECT setval('comments_seq', GREATEST(nextval('comments_seq'), (SELECT COALESCE(MAX(id), 0) + 50 FROM comments)), false);
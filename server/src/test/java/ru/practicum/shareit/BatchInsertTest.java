@@ -0,0 +1,114 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.NewRequestBookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemSummaryRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Пакетные вставки: StatementInspector видит подготовку запроса, а не каждое выполнение. Без пакетов Hibernate
+// готовит вставку на каждую строку, с hibernate.jdbc.batch_size один запрос переиспользуется всеми пакетами сброса,
+// а последовательность с шагом 50 выдает идентификаторы на 50 строк за одно обращение (часть могла остаться
+// от предыдущих тестов)
+@SpringBootTest
+class BatchInsertTest extends DatabaseTest {
+    private static final int ITEMS = 120;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    ItemSummaryRepository summaryRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Test
+    void itemsAndBookingsAreInsertedInBatchesTest() {
+        User owner = createUser("Linda");
+        User booker = createUser("Gorge");
+        List<ItemDto> itemDtos = IntStream.range(0, ITEMS)
+                .mapToObj(i -> new ItemDto(null, null, "Дрель " + i, "Сверлит стены", true, null))
+                .toList();
+
+        List<ItemDto> items;
+        Map<String, Integer> itemStatements;
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+            items = List.copyOf(itemService.createAll(owner.getId(), itemDtos));
+            itemStatements = scope.repeated(0);
+        }
+
+        assertEquals(ITEMS, items.size());
+        assertEquals(ITEMS, items.stream().map(ItemDto::getId).distinct().count());
+        assertEquals(1, statements(itemStatements, "insert into items "));
+        assertEquals(1, statements(itemStatements, "insert into item_summary "));
+        assertTrue(statements(itemStatements, "items_seq") <= 3);
+        assertTrue(items.stream().allMatch(item -> summaryRepository.existsById(item.getId())));
+
+        List<NewRequestBookingDto> bookingDtos = new ArrayList<>();
+        for (ItemDto item : items) {
+            bookingDtos.add(new NewRequestBookingDto(item.getId(), now.plusDays(1), now.plusDays(2)));
+            bookingDtos.add(new NewRequestBookingDto(item.getId(), now.plusDays(3), now.plusDays(4)));
+        }
+
+        List<BookingDto> bookings;
+        Map<String, Integer> bookingStatements;
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+            bookings = List.copyOf(bookingService.createAll(booker.getId(), bookingDtos));
+            bookingStatements = scope.repeated(0);
+        }
+
+        assertEquals(2 * ITEMS, bookings.size());
+        assertEquals(1, statements(bookingStatements, "insert into bookings "));
+        assertTrue(statements(bookingStatements, "bookings_seq") <= 5);
+        assertEquals(now.plusDays(1), itemService.getItemById(items.getFirst().getId()).getNextBooking());
+    }
+
+    @Test
+    void insertsWithoutIdDoNotCollideWithAllocatedIdsTest() {
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 120; i++) {
+            ids.add(createUser("Anna" + i).getId());
+            if (i % 10 == 0) {
+                String email = "etl" + i + "@gmail.com";
+                jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('Etl', ?)", email);
+                ids.add(jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, email));
+            }
+        }
+        // Фильтры Блума не знают о пользователях, добавленных в обход сервиса, поэтому удаляем их здесь же
+        jdbcTemplate.update("DELETE FROM users WHERE name = 'Etl'");
+
+        assertEquals(132, ids.size());
+    }
+
+    private int statements(Map<String, Integer> statements, String fragment) {
+        return statements.entrySet().stream()
+                .filter(statement -> statement.getKey().contains(fragment))
+                .mapToInt(Map.Entry::getValue)
+                .sum();
+    }
+}
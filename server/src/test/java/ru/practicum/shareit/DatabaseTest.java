@@ -0,0 +1,42 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+// Основа @SpringBootTest тестов с базой: после каждого теста таблицы и кэши очищаются, данные одного теста не видны
+// следующим. Откат транзакции теста не подходит: тесты проверяют закоммиченные данные параллельных транзакций,
+// экспорта в отдельном потоке и запросы, которые уходят в базу при коммите
+public abstract class DatabaseTest {
+    @Autowired
+    protected UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    // Пользователи удаляются через сервис, чтобы их id и email ушли и из фильтров Блума
+    @AfterEach
+    void cleanDatabase() {
+        JdbcTestUtils.deleteFromTables(jdbcTemplate, "comments", "bookings", "item_summary", "items", "requests");
+        jdbcTemplate.queryForList("SELECT id FROM users", Long.class).forEach(userService::delete);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    protected User createUser(String name) {
+        return userService.create(new UserDto(null, name, name.toLowerCase() + "@gmail.com"));
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.enums.BookingStatuses;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Планы горячих запросов репозиториев в H2: полный перебор таблицы вместо индекса означает пропавший или
+// неподходящий индекс из миграций db/migration
+@SpringBootTest
+class QueryPlanTest {
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    CommentRepository commentRepository;
+
+    @Autowired
+    ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void hotQueriesDoNotScanTablesTest() {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> statements = capture(() -> {
+            bookingRepository.findAllUserBookings(1L, now, 1L, Limit.of(20));
+            bookingRepository.findAllUserBookingsByStatus(1L, null, 0L, BookingStatuses.WAITING, Limit.of(20));
+            bookingRepository.findAllOwnerBookings(1L, null, 0L, Limit.of(20));
+            bookingRepository.findBookingDatesByItemIds(List.of(1L, 2L), now);
+            bookingRepository.findAllByItemIdAndStatusInAndEndAfter(1L,
+                    List.of(BookingStatuses.WAITING, BookingStatuses.APPROVED), now);
+            bookingRepository.existsByBookerIdAndItemIdAndEndBefore(1L, 1L, now);
+            itemRepository.findAllByUserId(1L);
+            itemRepository.findAllByRequestIdIn(List.of(1L, 2L));
+            commentRepository.findAllByItemIdIn(List.of(1L, 2L));
+            itemRequestRepository.findAllByRequesterIdOrderByCreatedDesc(1L);
+            itemRequestRepository.findOtherUsersRequests(1L, now, 1L, Limit.of(20));
+        });
+
+        assertEquals(11, statements.size());
+        List<String> scans = new ArrayList<>();
+        for (String statement : statements) {
+            String plan = explain(statement);
+            if (plan.contains("tableScan")) {
+                scans.add(plan);
+            }
+        }
+        assertEquals(List.of(), scans);
+    }
+
+    @Test
+    void tableScanIsVisibleInPlanTest() {
+        assertTrue(explain("select * from bookings where status = ?").contains("tableScan"));
+    }
+
+    private List<String> capture(Runnable queries) {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+            queries.run();
+            return List.copyOf(scope.repeated(0).keySet());
+        }
+    }
+
+    // Значения параметров на выбор индекса в H2 не влияют, поэтому план строится с null
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+    }
+}
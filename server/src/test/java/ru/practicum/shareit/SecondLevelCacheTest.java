@@ -0,0 +1,93 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.item.dto.ImprovedItemDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class SecondLevelCacheTest extends DatabaseTest {
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void repeatedUserChecksAreServedFromCacheTest() {
+        User user = createUser("Linda");
+        long hits = regionHits(CacheConfig.USERS_REGION);
+
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+            for (int i = 0; i < 3; i++) {
+                assertEquals("Linda", userService.getUserById(user.getId()).getName());
+            }
+            assertEquals(0, scope.count());
+        }
+        assertEquals(hits + 3, regionHits(CacheConfig.USERS_REGION));
+
+        userService.update(user.getId(), new UserDto(null, "Gorge", null));
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+            assertEquals("Gorge", userService.getUserById(user.getId()).getName());
+            assertEquals(0, scope.count());
+        }
+    }
+
+    @Test
+    void ownerItemsQueryIsCachedUntilItemsChangeTest() {
+        User owner = createUser("Anna");
+        createItem(owner, "Дрель");
+        itemService.getAllUserItems(owner.getId());
+
+        // Повторный список обходится без запроса к items: ни строки, ни сами вещи не читаются из базы
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+            itemService.getAllUserItems(owner.getId());
+            assertTrue(scope.repeated(0).keySet().stream().noneMatch(sql -> sql.contains(" from items ")));
+        }
+
+        createItem(owner, "Пила");
+        Collection<ImprovedItemDto> items = itemService.getAllUserItems(owner.getId());
+        assertEquals(2, items.size());
+    }
+
+    @Test
+    void regionStatisticsArePublishedAsMetricsTest() {
+        User user = createUser("Petr");
+        userService.getUserById(user.getId());
+
+        FunctionCounter hits = meterRegistry.find("hibernate.second.level.cache.requests")
+                .tags("region", CacheConfig.USERS_REGION, "result", "hit")
+                .functionCounter();
+        assertNotNull(hits);
+        assertTrue(hits.count() >= 1);
+        assertNotNull(meterRegistry.find("hibernate.cache.query.requests").functionCounter());
+    }
+
+    private long regionHits(String region) {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics()
+                .getDomainDataRegionStatistics(region).getHitCount();
+    }
+
+    private void createItem(User owner, String name) {
+        itemService.create(owner.getId(), new ItemDto(null, null, name, "Для ремонта", true, null));
+    }
+}
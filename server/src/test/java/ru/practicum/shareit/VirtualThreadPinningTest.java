@@ -0,0 +1,75 @@
+package ru.practicum.shareit;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.NewRequestBookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Проверяем, что запросы к базе из виртуальных потоков не закрепляют их на потоках-носителях
+@SpringBootTest
+class VirtualThreadPinningTest extends DatabaseTest {
+    private static final int TASKS = 200;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    BookingService bookingService;
+
+    @Test
+    void jdbcPathDoesNotPinVirtualThreadsTest() throws Exception {
+        User owner = createUser("Linda");
+        User booker = createUser("Gorge");
+        ItemDto item = itemService.create(owner.getId(), new ItemDto(null, null, "Газонокосилка", "Косит газон",
+                true, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        List<RecordedEvent> pinnedEvents;
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+
+            // Соединений в пуле меньше, чем задач, а брони одной вещи конкурируют за календарь
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = IntStream.range(0, TASKS)
+                        .<Future<?>>mapToObj(i -> executor.submit(() -> {
+                            itemService.getItemById(item.getId());
+                            bookingService.create(booker.getId(), new NewRequestBookingDto(item.getId(),
+                                    start.plusHours(i), start.plusHours(i).plusMinutes(30)));
+                            return bookingService.findAllBookingsByUser(booker.getId(), "ALL", null, null, 20);
+                        }))
+                        .toList();
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+
+            recording.stop();
+            Path file = Files.createTempFile("virtual-thread-pinning", ".jfr");
+            recording.dump(file);
+            pinnedEvents = RecordingFile.readAllEvents(file);
+            Files.deleteIfExists(file);
+        }
+
+        assertTrue(pinnedEvents.isEmpty(), () -> "Виртуальные потоки закрепились на носителях: " + pinnedEvents);
+    }
+}
@@ -8,9 +8,11 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.NewRequestBookingDto;
 import ru.practicum.shareit.booking.enums.BookingStatuses;
+import ru.practicum.shareit.booking.export.BookingExportService;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -23,6 +25,8 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -37,6 +41,9 @@ class BookingControllerTest {
     @MockBean
     private BookingService bookingService;
 
+    @MockBean
+    private BookingExportService bookingExportService;
+
     private final NewRequestBookingDto newRequestBookingDto = new NewRequestBookingDto(
             1L,
             LocalDateTime.now(),
@@ -83,6 +90,25 @@ class BookingControllerTest {
         assertEquals(mapper.writeValueAsString(bookingDto), result);
     }
 
+    @Test
+    @SneakyThrows
+    void createAllBookingsTest() {
+        when(bookingService.createAll(user.getId(), List.of(newRequestBookingDto, newRequestBookingDto)))
+                .thenReturn(List.of(bookingDto, bookingDto));
+
+        String result = mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(newRequestBookingDto, newRequestBookingDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(mapper.writeValueAsString(List.of(bookingDto, bookingDto)), result);
+    }
+
     @Test
     @SneakyThrows
     void approveBookingTest() {
@@ -121,7 +147,7 @@ class BookingControllerTest {
     @Test
     @SneakyThrows
     void findAllBookingsByUserTest() {
-        when(bookingService.findAllBookingsByUser(user.getId(), "ALL")).thenReturn(List.of(bookingDto));
+        when(bookingService.findAllBookingsByUser(user.getId(), "ALL", null, null, 20)).thenReturn(List.of(bookingDto));
 
         String result = mvc.perform(get("/bookings")
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -139,13 +165,18 @@ class BookingControllerTest {
     @Test
     @SneakyThrows
     void findAllBookingsByOwnerTest() {
-        when(bookingService.findAllBookingsByOwner(user.getId(), "PAST")).thenReturn(List.of(bookingDto));
+        LocalDateTime cursorStart = LocalDateTime.of(2024, 1, 1, 12, 0);
+        when(bookingService.findAllBookingsByOwner(user.getId(), "PAST", cursorStart, 3L, 5))
+                .thenReturn(List.of(bookingDto));
 
         String result = mvc.perform(get("/bookings/owner")
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
                         .header("X-Sharer-User-Id", user.getId())
-                        .param("state", "PAST"))
+                        .param("state", "PAST")
+                        .param("cursorStart", "2024-01-01T12:00:00")
+                        .param("cursorId", "3")
+                        .param("size", "5"))
                 .andExpect(status().isOk())
                 .andReturn()
                 .getResponse()
@@ -153,4 +184,22 @@ class BookingControllerTest {
 
         assertEquals(mapper.writeValueAsString(List.of(bookingDto)), result);
     }
-}
\ No newline at end of file
+
+    @Test
+    @SneakyThrows
+    void exportBookingsByOwnerTest() {
+        String line = mapper.writeValueAsString(bookingDto) + "\n";
+        when(bookingExportService.exportBookingsByOwner(user.getId()))
+                .thenReturn(output -> output.write(line.getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult started = mvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", user.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(line));
+    }
+}
@@ -0,0 +1,255 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.enums.BookingStatuses;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingAvailabilityServiceTest {
+    @Mock
+    BookingRepository bookingRepository;
+
+    BookingAvailabilityService availabilityService;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final User user = new User(1L, "Linda", "linda@gmail.com");
+
+    private final Item item = new Item(1L, "Газонокосилка", "Косит газон", true, user, null);
+
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+    private final Booking booking = new Booking(1L, start, start.plusDays(2), item, user,
+            BookingStatuses.WAITING);
+
+    @BeforeEach
+    void setUp() {
+        availabilityService = new BookingAvailabilityService(bookingRepository, 100, Duration.ofHours(1), nanos::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reserveTest() {
+        mockStoredBookings(List.of());
+
+        Booking result = availabilityService.reserve(item.getId(), start, start.plusDays(2), () -> booking);
+
+        assertSame(booking, result);
+        assertTrue(availabilityService.getCalendar(item.getId()).overlaps(start, start.plusDays(1), null));
+        verify(bookingRepository, times(1)).findAllByItemIdAndStatusInAndEndAfter(eq(item.getId()),
+                anyCollection(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void reserveWhenOverlapsThenThrowValidationExceptionTest() {
+        mockStoredBookings(List.of(booking));
+
+        ValidationException validationException = assertThrows(ValidationException.class,
+                () -> availabilityService.reserve(item.getId(), start.plusDays(1), start.plusDays(3), () -> {
+                    throw new AssertionError("Бронь не должна сохраняться.");
+                }));
+
+        assertEquals("Предмет уже забронирован на указанные даты.", validationException.getMessage());
+    }
+
+    @Test
+    void reserveWhenRolledBackTest() {
+        mockStoredBookings(List.of());
+        TransactionSynchronizationManager.initSynchronization();
+
+        availabilityService.reserve(item.getId(), start, start.plusDays(2), () -> booking);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(0, availabilityService.getCalendar(item.getId()).size());
+    }
+
+    @Test
+    void confirmTest() {
+        mockStoredBookings(List.of(booking));
+        booking.setStatus(BookingStatuses.APPROVED);
+
+        availabilityService.confirm(booking);
+
+        assertEquals(List.of(BookingInterval.of(booking)),
+                availabilityService.getCalendar(item.getId()).between(start, start.plusDays(1)));
+    }
+
+    @Test
+    void confirmWhenOverlapsThenThrowValidationExceptionTest() {
+        Booking other = new Booking(2L, start.plusDays(1), start.plusDays(3), item, user,
+                BookingStatuses.APPROVED);
+        mockStoredBookings(List.of(other));
+
+        assertThrows(ValidationException.class, () -> availabilityService.confirm(booking));
+    }
+
+    @Test
+    void releaseTest() {
+        mockStoredBookings(List.of(booking));
+
+        availabilityService.release(booking);
+
+        assertFalse(availabilityService.getCalendar(item.getId()).overlaps(start, start.plusDays(2), null));
+    }
+
+    @Test
+    void releaseAfterCommitTest() {
+        mockStoredBookings(List.of(booking));
+        TransactionSynchronizationManager.initSynchronization();
+
+        availabilityService.release(booking);
+
+        assertEquals(1, availabilityService.getCalendar(item.getId()).size());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(0, availabilityService.getCalendar(item.getId()).size());
+    }
+
+    @Test
+    void findBusyIntervalsTest() {
+        mockStoredBookings(List.of(booking));
+
+        assertEquals(List.of(BookingInterval.of(booking)),
+                availabilityService.findBusyIntervals(item.getId(), start.minusDays(1), start.plusDays(1)));
+        assertTrue(availabilityService.findBusyIntervals(item.getId(), start.plusDays(2), start.plusDays(3))
+                .isEmpty());
+    }
+
+    @Test
+    void calendarIsReloadedAfterExpiryTest() {
+        mockStoredBookings(List.of(booking));
+        ItemCalendar calendar = availabilityService.getCalendar(item.getId());
+
+        nanos.addAndGet(Duration.ofHours(2).toNanos());
+
+        assertNotSame(calendar, availabilityService.getCalendar(item.getId()));
+        verify(bookingRepository, times(2)).findAllByItemIdAndStatusInAndEndAfter(eq(item.getId()),
+                anyCollection(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void calendarOfUnfinishedTransactionIsKeptAfterExpiryTest() {
+        mockStoredBookings(List.of());
+        TransactionSynchronizationManager.initSynchronization();
+        availabilityService.reserve(item.getId(), start, start.plusDays(2), () -> booking);
+        ItemCalendar calendar = availabilityService.getCalendar(item.getId());
+
+        // Незакоммиченной брони в базе нет, загруженный заново календарь ее бы потерял
+        nanos.addAndGet(Duration.ofHours(2).toNanos());
+        assertSame(calendar, availabilityService.getCalendar(item.getId()));
+        assertEquals(1, calendar.size());
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        nanos.addAndGet(Duration.ofHours(2).toNanos());
+        assertNotSame(calendar, availabilityService.getCalendar(item.getId()));
+        verify(bookingRepository, times(2)).findAllByItemIdAndStatusInAndEndAfter(eq(item.getId()),
+                anyCollection(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void confirmWhenRolledBackRestoresWaitingBookingTest() {
+        mockStoredBookings(List.of(booking));
+        TransactionSynchronizationManager.initSynchronization();
+        Booking approved = new Booking(booking.getId(), booking.getStart(), booking.getEnd(), item, user,
+                BookingStatuses.APPROVED);
+
+        availabilityService.confirm(approved);
+        ItemCalendar calendar = availabilityService.getCalendar(item.getId());
+        assertEquals(BookingStatuses.APPROVED, calendar.find(booking.getId()).getStatus());
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(BookingInterval.of(booking), calendar.find(booking.getId()));
+    }
+
+    @Test
+    void confirmOfRejectedBookingWhenRolledBackTest() {
+        mockStoredBookings(List.of());
+        TransactionSynchronizationManager.initSynchronization();
+        booking.setStatus(BookingStatuses.APPROVED);
+
+        availabilityService.confirm(booking);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(0, availabilityService.getCalendar(item.getId()).size());
+    }
+
+    @Test
+    void concurrentCallsLoadCalendarOnceTest() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfter(eq(item.getId()), anyCollection(),
+                any(LocalDateTime.class))).thenAnswer(invocation -> {
+                    loading.countDown();
+                    release.await();
+                    return List.of(booking);
+                });
+
+        CompletableFuture<ItemCalendar> first = CompletableFuture.supplyAsync(
+                () -> availabilityService.getCalendar(item.getId()));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<ItemCalendar> second = CompletableFuture.supplyAsync(
+                () -> availabilityService.getCalendar(item.getId()));
+        release.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        verify(bookingRepository, times(1)).findAllByItemIdAndStatusInAndEndAfter(eq(item.getId()),
+                anyCollection(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void failedLoadIsRethrownAndRetriedTest() {
+        IllegalStateException failure = new IllegalStateException("База недоступна.");
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfter(eq(item.getId()), anyCollection(),
+                any(LocalDateTime.class))).thenThrow(failure).thenReturn(List.of(booking));
+
+        assertSame(failure, assertThrows(IllegalStateException.class,
+                () -> availabilityService.getCalendar(item.getId())));
+        assertEquals(1, availabilityService.getCalendar(item.getId()).size());
+    }
+
+    private void mockStoredBookings(List<Booking> bookings) {
+        when(bookingRepository.findAllByItemIdAndStatusInAndEndAfter(eq(item.getId()), anyCollection(),
+                any(LocalDateTime.class))).thenReturn(bookings);
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.enums.BookingStatuses;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemCalendarTest {
+    private final LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    private final BookingInterval first = new BookingInterval(1L, now, now.plusDays(2), BookingStatuses.APPROVED);
+
+    private final BookingInterval second = new BookingInterval(2L, now.plusDays(4), now.plusDays(6),
+            BookingStatuses.WAITING);
+
+    @Test
+    void overlapsTest() {
+        ItemCalendar calendar = new ItemCalendar(List.of(second, first));
+
+        assertTrue(calendar.overlaps(now.plusDays(1), now.plusDays(3), null));
+        assertTrue(calendar.overlaps(now.minusDays(1), now.plusDays(10), null));
+        assertTrue(calendar.overlaps(now.plusDays(5), now.plusDays(7), null));
+        assertFalse(calendar.overlaps(now.plusDays(2), now.plusDays(4), null));
+        assertFalse(calendar.overlaps(now.minusDays(2), now, null));
+        assertFalse(calendar.overlaps(now.plusDays(6), now.plusDays(8), null));
+    }
+
+    @Test
+    void overlapsWithExcludedBookingTest() {
+        ItemCalendar calendar = new ItemCalendar(List.of(first, second));
+
+        assertFalse(calendar.overlaps(now.plusDays(4), now.plusDays(6), second.getBookingId()));
+        assertTrue(calendar.overlaps(now.plusDays(1), now.plusDays(6), second.getBookingId()));
+    }
+
+    @Test
+    void overlapsWhenIntervalsIntersectTest() {
+        BookingInterval inner = new BookingInterval(3L, now.plusHours(1), now.plusHours(2), BookingStatuses.WAITING);
+        ItemCalendar calendar = new ItemCalendar(List.of(first, inner, second));
+
+        assertTrue(calendar.overlaps(now.plusDays(1), now.plusDays(1).plusHours(1), inner.getBookingId()));
+        assertFalse(calendar.overlaps(now.plusDays(3), now.plusDays(4), null));
+        assertEquals(List.of(first, inner), calendar.between(now.plusMinutes(90), now.plusDays(3)));
+    }
+
+    @Test
+    void addAndRemoveTest() {
+        ItemCalendar calendar = new ItemCalendar(List.of(first));
+        BookingInterval approvedSecond = new BookingInterval(2L, second.getStart(), second.getEnd(),
+                BookingStatuses.APPROVED);
+
+        calendar.add(second);
+        calendar.add(approvedSecond);
+
+        assertEquals(2, calendar.size());
+        assertEquals(List.of(approvedSecond), calendar.between(now.plusDays(3), now.plusDays(10)));
+
+        calendar.remove(second.getBookingId());
+        calendar.remove(100L);
+
+        assertEquals(1, calendar.size());
+        assertFalse(calendar.overlaps(now.plusDays(4), now.plusDays(6), null));
+    }
+
+    @Test
+    void betweenTest() {
+        ItemCalendar calendar = new ItemCalendar(List.of(first, second));
+
+        assertEquals(List.of(first, second), calendar.between(now.plusDays(1), now.plusDays(5)));
+        assertEquals(List.of(second), calendar.between(now.plusDays(2), now.plusDays(5)));
+        assertTrue(calendar.between(now.plusDays(2), now.plusDays(4)).isEmpty());
+    }
+
+    @Test
+    void removeEndedBeforeTest() {
+        ItemCalendar calendar = new ItemCalendar(List.of(first, second));
+
+        calendar.removeEndedBefore(now.plusDays(3));
+
+        assertEquals(1, calendar.size());
+        assertFalse(calendar.overlaps(now, now.plusDays(2), null));
+        assertTrue(calendar.overlaps(now, now.plusDays(5), null));
+    }
+
+    @Test
+    void removeEndedBeforeWhenIntervalsIntersectTest() {
+        BookingInterval longOne = new BookingInterval(3L, now.minusDays(1), now.plusDays(10),
+                BookingStatuses.WAITING);
+        ItemCalendar calendar = new ItemCalendar(List.of(first, longOne, second));
+
+        calendar.removeEndedBefore(now.plusDays(3));
+
+        assertEquals(2, calendar.size());
+        assertEquals(List.of(longOne, second), calendar.between(now, now.plusDays(5)));
+    }
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.booking.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.DatabaseTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.NewRequestBookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingExportServiceTest extends DatabaseTest {
+    @Autowired
+    BookingExportService exportService;
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    ObjectMapper mapper;
+
+    @Autowired
+    MockMvc mvc;
+
+    final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Test
+    void bookingHistoryIsWrittenLineByLineTest() throws Exception {
+        User owner = createUser("linda");
+        User booker = createUser("gorge");
+        List<BookingDto> created = createBookings(owner, booker, 7);
+
+        MvcResult started = mvc.perform(get("/bookings/export")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        assertEquals(toNdjson(created), body);
+    }
+
+    @Test
+    void ownerHistoryIsExportedInStartOrderTest() throws Exception {
+        User owner = createUser("anna");
+        User booker = createUser("ivan");
+        List<BookingDto> created = createBookings(owner, booker, 3);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        exportService.exportBookingsByOwner(owner.getId()).writeTo(output);
+
+        assertEquals(toNdjson(created), output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void emptyHistoryIsExportedAsEmptyBodyTest() throws Exception {
+        User user = createUser("petr");
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        exportService.exportBookingsByUser(user.getId()).writeTo(output);
+
+        assertEquals(0, output.size());
+    }
+
+    @Test
+    void unknownUserIsRejectedBeforeStreamingTest() throws Exception {
+        assertThrows(NotFoundException.class, () -> exportService.exportBookingsByUser(-1L));
+
+        mvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", -1L)
+                        .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error", is("Искомый объект не найден.")));
+    }
+
+    // Каждое бронирование - отдельный JSON-объект в своей строке, последняя строка тоже заканчивается переводом строки
+    private String toNdjson(List<BookingDto> bookings) throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (BookingDto booking : bookings) {
+            ndjson.append(mapper.writeValueAsString(booking)).append('\n');
+        }
+        return ndjson.toString();
+    }
+
+    private List<BookingDto> createBookings(User owner, User booker, int count) {
+        ItemDto item = itemService.create(owner.getId(), new ItemDto(null, null, "Дрель", "Сверлит стены", true,
+                null));
+        List<BookingDto> created = new ArrayList<>();
+        // Бронирования создаются от поздних к ранним, а выгружаются по дате начала
+        for (int i = count; i > 0; i--) {
+            created.addFirst(bookingService.create(booker.getId(), new NewRequestBookingDto(item.getId(),
+                    now.plusDays(i), now.plusDays(i).plusHours(1))));
+        }
+        return created;
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.DatabaseTest;
+import ru.practicum.shareit.booking.dto.BookingDatesDtoShort;
+import ru.practicum.shareit.booking.enums.BookingStatuses;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+class BookingRepositoryTest extends DatabaseTest {
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Test
+    void bookingDatesOfSeveralItemsAreLoadedInOneQueryTest() {
+        User owner = createUser("Ivan");
+        User booker = createUser("Petr");
+        Item pastAndFuture = createItem(owner);
+        Item onlyPast = createItem(owner);
+        Item onlyCurrent = createItem(owner);
+        Item withoutBookings = createItem(owner);
+        createBooking(pastAndFuture, booker, now.minusDays(3), now.minusDays(2));
+        createBooking(pastAndFuture, booker, now.plusDays(1), now.plusDays(2));
+        createBooking(pastAndFuture, booker, now.plusDays(3), now.plusDays(4));
+        createBooking(onlyPast, booker, now.minusDays(6), now.minusDays(5));
+        createBooking(onlyPast, booker, now.minusDays(2), now.minusDays(1));
+        createBooking(onlyCurrent, booker, now.minusHours(1), now.plusHours(1));
+
+        List<BookingDatesDtoShort> dates = bookingRepository.findBookingDatesByItemIds(List.of(pastAndFuture.getId(),
+                        onlyPast.getId(), onlyCurrent.getId(), withoutBookings.getId()), now).stream()
+                .sorted(Comparator.comparing(BookingDatesDtoShort::getItemId))
+                .toList();
+
+        assertEquals(List.of(pastAndFuture.getId(), onlyPast.getId(), onlyCurrent.getId()),
+                dates.stream().map(BookingDatesDtoShort::getItemId).toList());
+        assertEquals(now.minusDays(2), dates.get(0).getLastEnd());
+        assertEquals(now.plusDays(1), dates.get(0).getNextStart());
+        assertEquals(now.plusDays(2), dates.get(0).getNextEnd());
+        assertEquals(now.minusDays(1), dates.get(1).getLastEnd());
+        assertNull(dates.get(1).getNextStart());
+        assertNull(dates.get(1).getNextEnd());
+        assertNull(dates.get(2).getLastEnd());
+        assertNull(dates.get(2).getNextStart());
+        assertEquals(now.plusHours(1), dates.get(2).getNextEnd());
+    }
+
+    private Item createItem(User owner) {
+        return itemRepository.save(new Item(null, "Дрель", "Сверлит стены", true, owner, null));
+    }
+
+    private void createBooking(Item item, User booker, LocalDateTime start, LocalDateTime end) {
+        bookingRepository.save(new Booking(null, start, end, item, booker, BookingStatuses.APPROVED));
+    }
+}
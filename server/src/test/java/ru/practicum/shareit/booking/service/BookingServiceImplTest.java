@@ -5,9 +5,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityService;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.NewRequestBookingDto;
 import ru.practicum.shareit.booking.enums.BookingStatuses;
+import ru.practicum.shareit.booking.event.BookingsSavedEvent;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -21,13 +25,21 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,6 +53,12 @@ class BookingServiceImplTest {
     @Mock
     BookingRepository bookingRepository;
 
+    @Mock
+    BookingAvailabilityService availabilityService;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     BookingServiceImpl bookingService;
 
@@ -76,6 +94,8 @@ class BookingServiceImplTest {
 
     );
 
+    private final BookingDto bookingDto = BookingMapper.mapBookingToBookingDto(booking);
+
     private final NewRequestBookingDto newRequestBookingDto = new NewRequestBookingDto(
             1L,
             booking.getStart(),
@@ -87,10 +107,79 @@ class BookingServiceImplTest {
         when(userService.getUserById(anyLong())).thenReturn(user);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(availabilityService.reserve(eq(item.getId()), eq(booking.getStart()), eq(booking.getEnd()), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<Booking>>getArgument(3).get());
 
         BookingDto createdBooking = bookingService.create(user.getId(), newRequestBookingDto);
 
         assertEquals(createdBooking, BookingMapper.mapBookingToBookingDto(booking));
+        verify(eventPublisher).publishEvent(any(BookingsSavedEvent.class));
+    }
+
+    @Test
+    void createAllBookingsTest() {
+        when(userService.getUserById(anyLong())).thenReturn(user);
+        when(itemRepository.findAllById(Set.of(item.getId()))).thenReturn(List.of(item));
+        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(availabilityService.reserve(eq(item.getId()), eq(booking.getStart()), eq(booking.getEnd()), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<Booking>>getArgument(3).get());
+
+        Collection<BookingDto> createdBookings = bookingService.createAll(user.getId(),
+                List.of(newRequestBookingDto, newRequestBookingDto));
+
+        assertEquals(List.of(bookingDto, bookingDto), createdBookings);
+        // Календарь загружается один раз до первой записи, а событие публикуется одно на весь пакет
+        verify(availabilityService).getCalendar(item.getId());
+        verify(eventPublisher).publishEvent(any(BookingsSavedEvent.class));
+    }
+
+    @Test
+    void createAllBookingsWhenItemNotFoundThenThrowNotFoundExceptionTest() {
+        when(userService.getUserById(anyLong())).thenReturn(user);
+        when(itemRepository.findAllById(Set.of(item.getId()))).thenReturn(List.of());
+
+        NotFoundException notFoundException = assertThrows(NotFoundException.class,
+                () -> bookingService.createAll(user.getId(), List.of(newRequestBookingDto)));
+
+        assertEquals(notFoundException.getMessage(), "Предмет с id " + item.getId() + " не найден.");
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void createAllBookingsWhenBatchIsTooLargeThenThrowValidationExceptionTest() {
+        List<NewRequestBookingDto> bookingDtos = Collections.nCopies(1001, newRequestBookingDto);
+
+        ValidationException validationException = assertThrows(ValidationException.class,
+                () -> bookingService.createAll(user.getId(), bookingDtos));
+
+        assertEquals(validationException.getMessage(), "Пакет должен содержать от 1 до 1000 бронирований.");
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void createAllBookingsWithoutDatesThenThrowValidationExceptionTest() {
+        NewRequestBookingDto withoutDates = new NewRequestBookingDto(item.getId(), null, null);
+
+        ValidationException validationException = assertThrows(ValidationException.class,
+                () -> bookingService.createAll(user.getId(), List.of(newRequestBookingDto, withoutDates)));
+
+        assertEquals(validationException.getMessage(), "Дата начала бронирования не может равна null.");
+        verify(itemRepository, never()).findAllById(any());
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void createBookingWhenItemAlreadyBookedThenThrowValidationExceptionTest() {
+        when(userService.getUserById(anyLong())).thenReturn(user);
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(availabilityService.reserve(eq(item.getId()), eq(booking.getStart()), eq(booking.getEnd()), any()))
+                .thenThrow(new ValidationException("Предмет уже забронирован на указанные даты."));
+
+        ValidationException validationException = assertThrows(ValidationException.class,
+                () -> bookingService.create(user.getId(), newRequestBookingDto));
+
+        assertEquals(validationException.getMessage(), "Предмет уже забронирован на указанные даты.");
+        verify(bookingRepository, never()).save(any(Booking.class));
     }
 
     @Test
@@ -134,7 +223,7 @@ class BookingServiceImplTest {
 
     @Test
     void approveBookingTest() {
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findWithItemAndBookerById(anyLong())).thenReturn(Optional.of(booking));
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
 
         Booking changedBooking = new Booking(
@@ -150,11 +239,12 @@ class BookingServiceImplTest {
         BookingDto result = bookingService.approve(user.getId(), booking.getId(), true);
 
         assertEquals(result, BookingMapper.mapBookingToBookingDto(changedBooking));
+        verify(availabilityService).confirm(booking);
     }
 
     @Test
     void approveBookingWhenUserIdNotEqualsOwnerIdThenThrowForbiddenAccessExceptionTest() {
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findWithItemAndBookerById(anyLong())).thenReturn(Optional.of(booking));
 
         ForbiddenAccessException forbiddenAccessException = assertThrows(ForbiddenAccessException.class,
                 () -> bookingService.approve(0L, booking.getId(), true));
@@ -165,7 +255,7 @@ class BookingServiceImplTest {
 
     @Test
     void approveBookingWhenRejectedTest() {
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findWithItemAndBookerById(anyLong())).thenReturn(Optional.of(booking));
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
 
         Booking changedBooking = new Booking(
@@ -181,11 +271,12 @@ class BookingServiceImplTest {
         BookingDto result = bookingService.approve(user.getId(), booking.getId(), false);
 
         assertEquals(result, BookingMapper.mapBookingToBookingDto(changedBooking));
+        verify(availabilityService).release(booking);
     }
 
     @Test
     void approveWhenBookingNotFoundThenThrowNotFoundExceptionTest() {
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(bookingRepository.findWithItemAndBookerById(anyLong())).thenReturn(Optional.empty());
 
         NotFoundException notFoundException = assertThrows(NotFoundException.class,
                 () -> bookingService.approve(user.getId(), booking.getId(), true));
@@ -196,17 +287,18 @@ class BookingServiceImplTest {
 
     @Test
     void getBookingByIdTest() {
-        when(userService.getUserById(anyLong())).thenReturn(user);
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findWithItemAndBookerById(anyLong())).thenReturn(Optional.of(booking));
 
         BookingDto result = bookingService.getBookingById(user.getId(), booking.getId());
 
         assertEquals(result, BookingMapper.mapBookingToBookingDto(booking));
+        verify(userService).checkUserExists(user.getId());
+        verify(userService, never()).getUserById(anyLong());
     }
 
     @Test
     void getBookingByIdWhenNotFoundThenThrowNotFoundExceptionTest() {
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(bookingRepository.findWithItemAndBookerById(anyLong())).thenReturn(Optional.empty());
 
         NotFoundException notFoundException = assertThrows(NotFoundException.class,
                 () -> bookingService.getBookingById(user.getId(), booking.getId()));
@@ -217,7 +309,7 @@ class BookingServiceImplTest {
 
     @Test
     void getBookingByIdWhenWrongUserIdThenThrowForbiddenAccessExceptionTest() {
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findWithItemAndBookerById(anyLong())).thenReturn(Optional.of(booking));
 
         ForbiddenAccessException forbiddenAccessException = assertThrows(ForbiddenAccessException.class,
                 () -> bookingService.getBookingById(0L, booking.getId()));
@@ -228,124 +320,161 @@ class BookingServiceImplTest {
 
     @Test
     void findAllBookingsByUserWithStateALLTest() {
-        when(bookingRepository.findAllByBookerId(anyLong())).thenReturn(List.of(booking));
+        when(bookingRepository.findAllUserBookings(anyLong(), isNull(), anyLong(), any(Limit.class))).thenReturn(List.of(bookingDto));
 
-        List<BookingDto> result = bookingService.findAllBookingsByUser(user.getId(), "ALL").stream().toList();
+        List<BookingDto> result = bookingService.findAllBookingsByUser(user.getId(), "ALL", null, null, 20).stream().toList();
 
-        assertEquals(result, List.of(BookingMapper.mapBookingToBookingDto(booking)));
+        assertEquals(result, List.of(bookingDto));
     }
 
     @Test
     void findAllBookingsByUserWithStatePASTTest() {
-        when(bookingRepository.findAllUserBookingsInPast(anyLong())).thenReturn(List.of(booking));
+        when(bookingRepository.findAllUserBookingsInPast(anyLong(), isNull(), anyLong(), any(Limit.class))).thenReturn(List.of(bookingDto));
 
-        List<BookingDto> result = bookingService.findAllBookingsByUser(user.getId(), "PAST")
+        List<BookingDto> result = bookingService.findAllBookingsByUser(user.getId(), "PAST", null, null, 20)
                 .stream().toList();
 
-        assertEquals(result, List.of(BookingMapper.mapBookingToBookingDto(booking)));
+        assertEquals(result, List.of(bookingDto));
     }
 
     @Test
     void findAllBookingsByUserWithStateCURRENTTest() {
-        when(bookingRepository.findAllUserBookingsInPresent(anyLong())).thenReturn(List.of(booking));
+        when(bookingRepository.findAllUserBookingsInPresent(anyLong(), isNull(), anyLong(),
+                any(Limit.class))).thenReturn(List.of(bookingDto));
 
-        List<BookingDto> result = bookingService.findAllBookingsByUser(user.getId(), "CURRENT")
+        List<BookingDto> result = bookingService.findAllBookingsByUser(user.getId(), "CURRENT", null, null, 20)
                 .stream().toList();
 
-        assertEquals(result, List.of(BookingMapper.mapBookingToBookingDto(booking)));
+        assertEquals(result, List.of(bookingDto));
     }
 
     @Test
     void findAllBookingsByUserWithStateFUTURETest() {
-        when(bookingRepository.findAllUserBookingsInFuture(anyLong())).thenReturn(List.of(booking));
+        when(bookingRepository.findAllUserBookingsInFuture(anyLong(), isNull(), anyLong(),
+                any(Limit.class))).thenReturn(List.of(bookingDto));
 
-        List<BookingDto> result = bookingService.findAllBookingsByUser(user.getId(), "FUTURE")
+        List<BookingDto> result = bookingService.findAllBookingsByUser(user.getId(), "FUTURE", null, null, 20)
                 .stream().toList();
 
-        assertEquals(result, List.of(BookingMapper.mapBookingToBookingDto(booking)));
+        assertEquals(result, List.of(bookingDto));
     }
 
     @Test
     void findAllBookingsByUserWithStateWAITINGTest() {
-        when(bookingRepository.findAllByBookerIdAndStatus(user.getId(), BookingStatuses.WAITING))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAllUserBookingsByStatus(eq(user.getId()), isNull(), anyLong(),
+                eq(BookingStatuses.WAITING), any(Limit.class)))
+                .thenReturn(List.of(bookingDto));
 
-        List<BookingDto> result = bookingService.findAllBookingsByUser(user.getId(), "WAITING")
+        List<BookingDto> result = bookingService.findAllBookingsByUser(user.getId(), "WAITING", null, null, 20)
                 .stream().toList();
 
-        assertEquals(result, List.of(BookingMapper.mapBookingToBookingDto(booking)));
+        assertEquals(result, List.of(bookingDto));
     }
 
     @Test
     void findAllBookingsByUserWithStateREJECTEDTest() {
-        when(bookingRepository.findAllByBookerIdAndStatus(user.getId(), BookingStatuses.REJECTED))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAllUserBookingsByStatus(eq(user.getId()), isNull(), anyLong(),
+                eq(BookingStatuses.REJECTED), any(Limit.class)))
+                .thenReturn(List.of(bookingDto));
 
-        List<BookingDto> result = bookingService.findAllBookingsByUser(user.getId(), "REJECTED")
+        List<BookingDto> result = bookingService.findAllBookingsByUser(user.getId(), "REJECTED", null, null, 20)
                 .stream().toList();
 
-        assertEquals(result, List.of(BookingMapper.mapBookingToBookingDto(booking)));
+        assertEquals(result, List.of(bookingDto));
     }
 
     @Test
     void findAllBookingsByOwnerWithStateALLTest() {
-        when(bookingRepository.findAllOwnerBookings(anyLong())).thenReturn(List.of(booking));
+        when(bookingRepository.findAllOwnerBookings(anyLong(), isNull(), anyLong(), any(Limit.class))).thenReturn(List.of(bookingDto));
 
-        List<BookingDto> result = bookingService.findAllBookingsByOwner(user.getId(), "ALL")
+        List<BookingDto> result = bookingService.findAllBookingsByOwner(user.getId(), "ALL", null, null, 20)
                 .stream().toList();
 
-        assertEquals(result, List.of(BookingMapper.mapBookingToBookingDto(booking)));
+        assertEquals(result, List.of(bookingDto));
     }
 
     @Test
     void findAllBookingsByOwnerWithStatePASTTest() {
-        when(bookingRepository.findAllOwnerBookingsInPast(anyLong())).thenReturn(List.of(booking));
+        when(bookingRepository.findAllOwnerBookingsInPast(anyLong(), isNull(), anyLong(), any(Limit.class))).thenReturn(List.of(bookingDto));
 
-        List<BookingDto> result = bookingService.findAllBookingsByOwner(user.getId(), "PAST")
+        List<BookingDto> result = bookingService.findAllBookingsByOwner(user.getId(), "PAST", null, null, 20)
                 .stream().toList();
 
-        assertEquals(result, List.of(BookingMapper.mapBookingToBookingDto(booking)));
+        assertEquals(result, List.of(bookingDto));
     }
 
     @Test
     void findAllBookingsByOwnerWithStateCURRENTTest() {
-        when(bookingRepository.findAllOwnerBookingsInPresent(anyLong())).thenReturn(List.of(booking));
+        when(bookingRepository.findAllOwnerBookingsInPresent(anyLong(), isNull(), anyLong(),
+                any(Limit.class))).thenReturn(List.of(bookingDto));
 
-        List<BookingDto> result = bookingService.findAllBookingsByOwner(user.getId(), "CURRENT")
+        List<BookingDto> result = bookingService.findAllBookingsByOwner(user.getId(), "CURRENT", null, null, 20)
                 .stream().toList();
 
-        assertEquals(result, List.of(BookingMapper.mapBookingToBookingDto(booking)));
+        assertEquals(result, List.of(bookingDto));
     }
 
     @Test
     void findAllBookingsByOwnerWithStateFUTURETest() {
-        when(bookingRepository.findAllOwnerBookingsInFuture(anyLong())).thenReturn(List.of(booking));
+        when(bookingRepository.findAllOwnerBookingsInFuture(anyLong(), isNull(), anyLong(),
+                any(Limit.class))).thenReturn(List.of(bookingDto));
 
-        List<BookingDto> result = bookingService.findAllBookingsByOwner(user.getId(), "FUTURE")
+        List<BookingDto> result = bookingService.findAllBookingsByOwner(user.getId(), "FUTURE", null, null, 20)
                 .stream().toList();
 
-        assertEquals(result, List.of(BookingMapper.mapBookingToBookingDto(booking)));
+        assertEquals(result, List.of(bookingDto));
     }
 
     @Test
     void findAllBookingsByOwnerWithStateWAITINGTest() {
-        when(bookingRepository.findAllOwnerBookingsByIdAndStatus(user.getId(), BookingStatuses.WAITING))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAllOwnerBookingsByStatus(eq(user.getId()), isNull(), anyLong(),
+                eq(BookingStatuses.WAITING), any(Limit.class)))
+                .thenReturn(List.of(bookingDto));
 
-        List<BookingDto> result = bookingService.findAllBookingsByOwner(user.getId(), "WAITING")
+        List<BookingDto> result = bookingService.findAllBookingsByOwner(user.getId(), "WAITING", null, null, 20)
                 .stream().toList();
 
-        assertEquals(result, List.of(BookingMapper.mapBookingToBookingDto(booking)));
+        assertEquals(result, List.of(bookingDto));
     }
 
     @Test
     void findAllBookingsByOwnerWithStateREJECTEDTest() {
-        when(bookingRepository.findAllOwnerBookingsByIdAndStatus(user.getId(), BookingStatuses.REJECTED))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAllOwnerBookingsByStatus(eq(user.getId()), isNull(), anyLong(),
+                eq(BookingStatuses.REJECTED), any(Limit.class)))
+                .thenReturn(List.of(bookingDto));
+
+        List<BookingDto> result = bookingService.findAllBookingsByOwner(user.getId(), "REJECTED", null, null, 20)
+                .stream().toList();
 
-        List<BookingDto> result = bookingService.findAllBookingsByOwner(user.getId(), "REJECTED")
+        assertEquals(result, List.of(bookingDto));
+    }
+
+    @Test
+    void findAllBookingsByUserWithCursorTest() {
+        LocalDateTime cursorStart = booking.getStart().minusDays(1);
+        when(bookingRepository.findAllUserBookings(user.getId(), cursorStart, 5L, Limit.of(100)))
+                .thenReturn(List.of(bookingDto));
+
+        List<BookingDto> result = bookingService.findAllBookingsByUser(user.getId(), "ALL", cursorStart, 5L, 500)
                 .stream().toList();
 
-        assertEquals(result, List.of(BookingMapper.mapBookingToBookingDto(booking)));
+        assertEquals(result, List.of(bookingDto));
+    }
+
+    @Test
+    void findAllBookingsByOwnerWithCursorWithoutIdTest() {
+        LocalDateTime cursorStart = booking.getStart().minusDays(1);
+
+        bookingService.findAllBookingsByOwner(user.getId(), "ALL", cursorStart, null, 10);
+
+        verify(bookingRepository).findAllOwnerBookings(user.getId(), cursorStart, 0L, Limit.of(10));
+    }
+
+    @Test
+    void findAllBookingsByUserWithWrongSizeThenThrowValidationExceptionTest() {
+        ValidationException validationException = assertThrows(ValidationException.class,
+                () -> bookingService.findAllBookingsByUser(user.getId(), "ALL", null, null, 0));
+
+        assertEquals(validationException.getMessage(), "Размер страницы должен быть больше нуля.");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.booking.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.DatabaseTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.NewRequestBookingDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.metrics.EntityLoadCounter;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Кэш второго уровня перед замерами очищается: иначе он скрыл бы догрузку предметов и пользователей
+@SpringBootTest
+class BookingServiceStatementCountTest extends DatabaseTest {
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    ItemRequestService requestService;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Test
+    void bookingListsAreLoadedWithOneQueryWithoutEntitiesTest() {
+        User owner = createUser("linda");
+        User booker = createUser("gorge");
+        Long requestId = requestService.create(new ItemRequestDto(null, "Нужна дрель.", null, null),
+                booker.getId()).getId();
+        List<BookingDto> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ItemDto item = itemService.create(owner.getId(), new ItemDto(null, null, "Дрель " + i, "Сверлит стены",
+                    true, i == 0 ? requestId : null));
+            created.add(bookingService.create(booker.getId(), new NewRequestBookingDto(item.getId(),
+                    now.plusDays(i + 1), now.plusDays(i + 2))));
+        }
+
+        assertEquals(created, loadPage(() -> bookingService.findAllBookingsByUser(booker.getId(), "ALL", null,
+                null, 20)));
+        assertEquals(created, loadPage(() -> bookingService.findAllBookingsByOwner(owner.getId(), "FUTURE",
+                null, null, 20)));
+    }
+
+    @Test
+    void bookingByIdIsLoadedWithItemAndBookerTest() {
+        User owner = createUser("anna");
+        User booker = createUser("ivan");
+        ItemDto item = itemService.create(owner.getId(), new ItemDto(null, null, "Палатка", "Двухместная", true,
+                null));
+        BookingDto booking = bookingService.create(booker.getId(), new NewRequestBookingDto(item.getId(),
+                now.plusDays(1), now.plusDays(2)));
+        entityManagerFactory.getCache().evictAll();
+
+        try (SqlStatementCounter.Scope statements = SqlStatementCounter.start();
+             EntityLoadCounter.Scope entities = EntityLoadCounter.start()) {
+            assertEquals(booking, bookingService.getBookingById(owner.getId(), booking.getId()));
+            // Проверка пользователя и бронирование вместе с предметом и бронирующим, владелец остается ссылкой
+            assertEquals(2, statements.count());
+            assertEquals(3, entities.count());
+        }
+    }
+
+    // Проверка пользователя и одна выборка страницы сразу в DTO
+    private Collection<BookingDto> loadPage(Supplier<Collection<BookingDto>> page) {
+        entityManagerFactory.getCache().evictAll();
+        try (SqlStatementCounter.Scope statements = SqlStatementCounter.start();
+             EntityLoadCounter.Scope entities = EntityLoadCounter.start()) {
+            Collection<BookingDto> bookings = page.get();
+            assertEquals(2, statements.count());
+            assertEquals(0, entities.count());
+            return bookings;
+        }
+    }
+}
@@ -8,8 +8,11 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.enums.BookingStatuses;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ImprovedItemDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.model.User;
@@ -21,6 +24,7 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -85,6 +89,22 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.available", is(itemDto.getAvailable())));
     }
 
+    @Test
+    @SneakyThrows
+    void createAllItemsTest() {
+        when(itemService.createAll(user.getId(), List.of(itemDto, itemDto))).thenReturn(List.of(itemDto, itemDto));
+
+        mvc.perform(post("/items/batch")
+                        .content(mapper.writeValueAsString(List.of(itemDto, itemDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].id", is(itemDto.getId()), Long.class))
+                .andExpect(jsonPath("$[1].name", is(itemDto.getName())));
+    }
+
     @Test
     @SneakyThrows
     void createCommentTest() {
@@ -176,4 +196,23 @@ class ItemControllerTest {
 
         assertEquals(mapper.writeValueAsString(List.of(itemDto)), result);
     }
-}
\ No newline at end of file
+
+    @Test
+    @SneakyThrows
+    void getItemAvailabilityTest() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 12, 0);
+        LocalDateTime to = from.plusDays(3);
+        ItemAvailabilityDto availabilityDto = new ItemAvailabilityDto(1L, from, to,
+                List.of(new AvailabilityIntervalDto(from.plusDays(1), from.plusDays(2), BookingStatuses.APPROVED)),
+                List.of(new AvailabilityIntervalDto(from, from.plusDays(1), null),
+                        new AvailabilityIntervalDto(from.plusDays(2), to, null)));
+        when(itemService.getItemAvailability(1L, from, to)).thenReturn(availabilityDto);
+
+        mvc.perform(get("/items/{itemId}/availability", 1L)
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.busy[0].status", is("APPROVED")))
+                .andExpect(jsonPath("$.free.length()", is(2)));
+    }
+}
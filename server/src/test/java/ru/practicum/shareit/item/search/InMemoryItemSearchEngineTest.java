@@ -0,0 +1,96 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryItemSearchEngineTest {
+    @Mock
+    ItemRepository itemRepository;
+
+    private InMemoryItemSearchEngine engine;
+
+    private final User user = new User(1L, "Gorge", "gorge@gmail.com");
+
+    private final Item drill = new Item(1L, "Дрель", "Аккумуляторная дрель", true, user, null);
+
+    private final Item saw = new Item(2L, "Пила", "Острая пила для дерева", true, user, null);
+
+    private final Item hiddenDrill = new Item(3L, "Дрель ударная", "Мощная дрель", false, user, null);
+
+    @BeforeEach
+    void setUp() {
+        engine = new InMemoryItemSearchEngine(itemRepository, 10);
+    }
+
+    @Test
+    void searchBeforeRebuildUsesRepositoryTest() {
+        when(itemRepository.findAllByText("дрель", Limit.of(10))).thenReturn(List.of(drill));
+
+        List<ItemDto> result = engine.search("дрель");
+
+        assertEquals(List.of(ItemMapper.mapToItemDto(drill)), result);
+    }
+
+    @Test
+    void searchAfterRebuildTest() {
+        when(itemRepository.findAll()).thenReturn(List.of(drill, saw, hiddenDrill));
+        engine.rebuild();
+
+        assertEquals(List.of(ItemMapper.mapToItemDto(drill)), engine.search("ДРЕль"));
+        assertEquals(List.of(ItemMapper.mapToItemDto(saw)), engine.search("дерев"));
+        assertEquals(List.of(ItemMapper.mapToItemDto(drill), ItemMapper.mapToItemDto(saw)), engine.search("л"));
+        assertTrue(engine.search("молоток").isEmpty());
+        verify(itemRepository).findAll();
+    }
+
+    @Test
+    void itemSavedDuringRebuildIsKeptTest() throws InterruptedException {
+        ItemDto hammer = new ItemDto(4L, 1L, "Молоток", "Тяжелый молоток", true, null);
+        Thread saver = new Thread(() -> engine.onItemSaved(new ItemSavedEvent(hammer, true)));
+        when(itemRepository.findAll()).thenAnswer(invocation -> {
+            // Предмет сохраняется, пока индекс читает предметы из базы, и в прочитанный список не попадает
+            saver.start();
+            saver.join(200);
+            return List.of(drill);
+        });
+
+        engine.rebuild();
+        saver.join();
+
+        assertEquals(List.of(hammer), engine.search("молот"));
+        assertEquals(List.of(ItemMapper.mapToItemDto(drill)), engine.search("дрель"));
+    }
+
+    @Test
+    void onItemSavedUpdatesIndexTest() {
+        when(itemRepository.findAll()).thenReturn(List.of(drill, saw));
+        engine.rebuild();
+
+        ItemDto changedDrill = new ItemDto(1L, 1L, "Молоток", "Тяжелый молоток", true, null);
+        engine.onItemSaved(new ItemSavedEvent(changedDrill, false));
+        ItemDto hiddenSaw = new ItemDto(2L, 1L, "Пила", "Острая пила для дерева", false, null);
+        engine.onItemSaved(new ItemSavedEvent(hiddenSaw, false));
+
+        assertTrue(engine.search("дрель").isEmpty());
+        assertTrue(engine.search("пила").isEmpty());
+        assertEquals(List.of(changedDrill), engine.search("молот"));
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchEngineTest {
+    @Mock
+    ItemRepository itemRepository;
+
+    private final Item item = new Item(
+            1L,
+            "Дрель",
+            "Аккумуляторная дрель",
+            true,
+            new User(1L, "Gorge", "gorge@gmail.com"),
+            null
+    );
+
+    @Test
+    void likeSearchTest() {
+        LikeItemSearchEngine engine = new LikeItemSearchEngine(itemRepository, 10);
+        when(itemRepository.findAllByText("дрель", Limit.of(10))).thenReturn(List.of(item));
+
+        List<ItemDto> result = engine.search("дрель");
+
+        assertEquals(List.of(ItemMapper.mapToItemDto(item)), result);
+    }
+
+    @Test
+    void trigramSearchTest() {
+        TrigramItemSearchEngine engine = new TrigramItemSearchEngine(itemRepository, 10);
+        when(itemRepository.findAllByTextRanked("дрель", 10)).thenReturn(List.of(item));
+
+        List<ItemDto> result = engine.search("дрель");
+
+        assertEquals(List.of(ItemMapper.mapToItemDto(item)), result);
+    }
+}
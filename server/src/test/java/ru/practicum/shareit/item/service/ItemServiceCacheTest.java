@@ -0,0 +1,86 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import ru.practicum.shareit.DatabaseTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.NewRequestBookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.item.dto.ImprovedItemDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@SpringBootTest
+class ItemServiceCacheTest extends DatabaseTest {
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    private User owner;
+
+    private User booker;
+
+    private ItemDto item;
+
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        owner = createUser("Linda");
+        booker = createUser("Gorge");
+        item = itemService.create(owner.getId(), new ItemDto(null, null, "Газонокосилка", "Косит газон",
+                true, null));
+        cache = cacheManager.getCache(CacheConfig.ITEMS_CACHE);
+    }
+
+    @Test
+    void getItemByIdIsCachedTest() {
+        ImprovedItemDto first = itemService.getItemById(item.getId());
+
+        assertSame(first, itemService.getItemById(item.getId()));
+        assertNotNull(cache.get(item.getId()));
+    }
+
+    @Test
+    void updateEvictsCachedItemTest() {
+        itemService.getItemById(item.getId());
+
+        itemService.update(owner.getId(), item.getId(), new ItemDto(null, null, "Триммер", null, null, null));
+
+        assertNull(cache.get(item.getId()));
+        assertEquals("Триммер", itemService.getItemById(item.getId()).getName());
+    }
+
+    @Test
+    void bookingCreateAndApproveEvictCachedItemTest() {
+        itemService.getItemById(item.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        BookingDto booking = bookingService.create(booker.getId(),
+                new NewRequestBookingDto(item.getId(), start, start.plusDays(1)));
+
+        assertNull(cache.get(item.getId()));
+        itemService.getItemById(item.getId());
+
+        bookingService.approve(owner.getId(), booking.getId(), false);
+
+        assertNull(cache.get(item.getId()));
+    }
+}
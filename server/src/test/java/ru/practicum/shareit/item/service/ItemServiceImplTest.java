@@ -5,32 +5,50 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityService;
+import ru.practicum.shareit.booking.availability.BookingInterval;
+import ru.practicum.shareit.booking.enums.BookingStatuses;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ImprovedItemDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.CommentCreatedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.summary.ItemSummaryService;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,7 +60,7 @@ class ItemServiceImplTest {
     ItemRepository itemRepository;
 
     @Mock
-    UserRepository userRepository;
+    UserService userService;
 
     @Mock
     CommentRepository commentRepository;
@@ -50,6 +68,18 @@ class ItemServiceImplTest {
     @Mock
     BookingRepository bookingRepository;
 
+    @Mock
+    ItemSearchEngine itemSearchEngine;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    BookingAvailabilityService availabilityService;
+
+    @Mock
+    ItemSummaryService summaryService;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -94,18 +124,19 @@ class ItemServiceImplTest {
 
     @Test
     void createItemTest() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userService.getUserReference(anyLong())).thenReturn(user);
         when(itemRequestRepository.findById(anyLong())).thenReturn(Optional.of(itemRequest));
         when(itemRepository.save(any(Item.class))).thenReturn(item);
 
         ItemDto createdItem = itemService.create(user.getId(), itemDto);
 
         assertEquals(createdItem, ItemMapper.mapToItemDto(item));
+        verify(eventPublisher).publishEvent(any(ItemSavedEvent.class));
     }
 
     @Test
     void createItemWhenRequestNotFoundThenThrowNotFoundExceptionTest() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userService.getUserReference(anyLong())).thenReturn(user);
         when(itemRequestRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         NotFoundException notFoundException = assertThrows(NotFoundException.class,
@@ -115,9 +146,54 @@ class ItemServiceImplTest {
                 "Запрос на добавление с id %d не найден.", itemDto.getRequestId()));
     }
 
+    @Test
+    void createAllItemsTest() {
+        when(userService.getUserReference(anyLong())).thenReturn(user);
+        when(itemRequestRepository.findAllById(any())).thenReturn(List.of(itemRequest));
+        when(itemRepository.saveAll(any())).thenReturn(List.of(item, item));
+
+        Collection<ItemDto> createdItems = itemService.createAll(user.getId(), List.of(itemDto, itemDto));
+
+        assertEquals(List.of(ItemMapper.mapToItemDto(item), ItemMapper.mapToItemDto(item)), createdItems);
+        verify(itemRequestRepository).findAllById(Set.of(itemDto.getRequestId()));
+        verify(eventPublisher, times(2)).publishEvent(any(ItemSavedEvent.class));
+    }
+
+    @Test
+    void createAllItemsWhenRequestNotFoundThenThrowNotFoundExceptionTest() {
+        when(userService.getUserReference(anyLong())).thenReturn(user);
+        when(itemRequestRepository.findAllById(any())).thenReturn(List.of());
+
+        NotFoundException notFoundException = assertThrows(NotFoundException.class,
+                () -> itemService.createAll(user.getId(), List.of(itemDto)));
+
+        assertEquals(notFoundException.getMessage(), String.format("Ошибка при добавлении предмета. " +
+                "Запрос на добавление с id %d не найден.", itemDto.getRequestId()));
+        verify(itemRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void createAllItemsWhenBatchIsEmptyThenThrowValidationExceptionTest() {
+        ValidationException validationException = assertThrows(ValidationException.class,
+                () -> itemService.createAll(user.getId(), List.of()));
+
+        assertEquals(validationException.getMessage(), "Пакет должен содержать от 1 до 1000 предметов.");
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void createAllItemsWithoutNameThenThrowValidationExceptionTest() {
+        ItemDto withoutName = new ItemDto(null, null, " ", "Сверлит стены", true, null);
+
+        ValidationException validationException = assertThrows(ValidationException.class,
+                () -> itemService.createAll(user.getId(), List.of(itemDto, withoutName)));
+
+        assertEquals(validationException.getMessage(), "Имя предмета не может быть пустым.");
+        verifyNoInteractions(itemRepository);
+    }
+
     @Test
     void updateItemTest() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
 
         Item changedItem = new Item(
@@ -144,12 +220,10 @@ class ItemServiceImplTest {
         LocalDateTime next = last.plusHours(5);
         ImprovedItemDto improvedItemDto = ItemMapper.mapItemToImprovedItemDto(item, last, next,
                 List.of(CommentMapper.mapCommentToCommentDto(comment)));
+        ItemSummary summary = new ItemSummary(item.getId(), last, next, next, 1, "[]", false);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(commentRepository.findAllByItemId(item.getId())).thenReturn(List.of(comment));
-        when(bookingRepository.findLastBookingEndByItemId(anyLong(), any(LocalDateTime.class)))
-                .thenReturn(Collections.singleton(last));
-        when(bookingRepository.findNextBookingStartByItemId(anyLong(), any(LocalDateTime.class)))
-                .thenReturn(Collections.singleton(next));
+        when(summaryService.getSummary(item.getId())).thenReturn(summary);
+        when(summaryService.getComments(summary)).thenReturn(List.of(CommentMapper.mapCommentToCommentDto(comment)));
 
         ImprovedItemDto itemToCheck = itemService.getItemById(item.getId());
 
@@ -163,37 +237,52 @@ class ItemServiceImplTest {
         ImprovedItemDto improvedItemDto = ItemMapper.mapItemToImprovedItemDto(item, last, next,
                 List.of(CommentMapper.mapCommentToCommentDto(comment)));
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
         when(itemRepository.findAllByUserId(anyLong())).thenReturn(List.of(item));
-        when(commentRepository.findAllByItemId(item.getId())).thenReturn(List.of(comment));
-        when(bookingRepository.findLastBookingEndByItemId(anyLong(), any(LocalDateTime.class)))
-                .thenReturn(Collections.singleton(last));
-        when(bookingRepository.findNextBookingStartByItemId(anyLong(), any(LocalDateTime.class)))
-                .thenReturn(Collections.singleton(next));
+        ItemSummary summary = new ItemSummary(item.getId(), last, next, next, 1, "[]", false);
+        when(summaryService.getSummaries(List.of(item.getId()))).thenReturn(Map.of(item.getId(), summary));
+        when(summaryService.getComments(summary)).thenReturn(List.of(CommentMapper.mapCommentToCommentDto(comment)));
 
         List<ImprovedItemDto> result = itemService.getAllUserItems(user.getId()).stream().toList();
 
         assertEquals(result, List.of(improvedItemDto));
     }
 
+    @Test
+    void getAllUserItemsWhenUserHasNoItemsTest() {
+        when(itemRepository.findAllByUserId(anyLong())).thenReturn(Collections.emptyList());
+
+        List<ImprovedItemDto> result = itemService.getAllUserItems(user.getId()).stream().toList();
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(commentRepository, bookingRepository, summaryService);
+    }
+
     @Test
     void searchItemTest() {
         ItemDto itemForSearch = ItemMapper.mapToItemDto(item);
 
-        when(itemRepository.findAllByText(anyString())).thenReturn(List.of(item));
+        when(itemSearchEngine.search(anyString())).thenReturn(List.of(itemForSearch));
 
         List<ItemDto> items = itemService.searchItem("text").stream().toList();
 
         assertEquals(items, List.of(itemForSearch));
     }
 
+    @Test
+    void searchItemWithBlankTextTest() {
+        assertTrue(itemService.searchItem(" ").isEmpty());
+        assertTrue(itemService.searchItem(null).isEmpty());
+        verifyNoInteractions(itemSearchEngine);
+    }
+
     @Test
     void createCommentTest() {
         LocalDateTime now = LocalDateTime.now();
         CommentDto commentDto = CommentMapper.mapCommentToCommentDto(comment);
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(userService.getUserById(anyLong())).thenReturn(user);
+        when(itemRepository.existsById(anyLong())).thenReturn(true);
+        when(itemRepository.getReferenceById(anyLong())).thenReturn(item);
         when(bookingRepository.existsByBookerIdAndItemIdAndEndBefore(anyLong(), anyLong(),
                 any(LocalDateTime.class))).thenReturn(true);
         when(commentRepository.save(any(Comment.class))).thenReturn(comment);
@@ -201,14 +290,16 @@ class ItemServiceImplTest {
         CommentDto createdComment = itemService.createComment(user.getId(), item.getId(), commentDto);
 
         assertEquals(createdComment, commentDto);
+        verify(eventPublisher).publishEvent(any(CommentCreatedEvent.class));
     }
 
     @Test
     void createCommentWithUserWithoutBookingThenThrowValidationException() {
         CommentDto commentDto = CommentMapper.mapCommentToCommentDto(comment);
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(userService.getUserById(anyLong())).thenReturn(user);
+        when(itemRepository.existsById(anyLong())).thenReturn(true);
+        when(itemRepository.getReferenceById(anyLong())).thenReturn(item);
         when(bookingRepository.existsByBookerIdAndItemIdAndEndBefore(anyLong(), anyLong(),
                 any(LocalDateTime.class))).thenReturn(false);
 
@@ -218,4 +309,48 @@ class ItemServiceImplTest {
         assertEquals(validationException.getMessage(), String.format("Ошибка при создании комментария. " +
                 "Пользователь c id %d никогда не бронировал вещь с id %d.", user.getId(), item.getId()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getItemAvailabilityTest() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        LocalDateTime to = from.plusDays(10);
+        when(itemRepository.existsById(anyLong())).thenReturn(true);
+        when(availabilityService.findBusyIntervals(item.getId(), from, to)).thenReturn(List.of(
+                new BookingInterval(1L, from.minusDays(1), from.plusDays(1), BookingStatuses.APPROVED),
+                new BookingInterval(2L, from.plusDays(3), from.plusDays(4), BookingStatuses.WAITING)));
+
+        ItemAvailabilityDto result = itemService.getItemAvailability(item.getId(), from, to);
+
+        assertEquals(List.of(
+                new AvailabilityIntervalDto(from.minusDays(1), from.plusDays(1), BookingStatuses.APPROVED),
+                new AvailabilityIntervalDto(from.plusDays(3), from.plusDays(4), BookingStatuses.WAITING)),
+                result.getBusy());
+        assertEquals(List.of(
+                new AvailabilityIntervalDto(from.plusDays(1), from.plusDays(3), null),
+                new AvailabilityIntervalDto(from.plusDays(4), to, null)),
+                result.getFree());
+    }
+
+    @Test
+    void getItemAvailabilityInPastTest() {
+        LocalDateTime to = LocalDateTime.now().minusDays(1);
+        when(itemRepository.existsById(anyLong())).thenReturn(true);
+
+        ItemAvailabilityDto result = itemService.getItemAvailability(item.getId(), to.minusDays(5), to);
+
+        assertTrue(result.getBusy().isEmpty());
+        assertTrue(result.getFree().isEmpty());
+        verifyNoInteractions(availabilityService);
+    }
+
+    @Test
+    void getItemAvailabilityWhenWrongPeriodThenThrowValidationExceptionTest() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+
+        ValidationException validationException = assertThrows(ValidationException.class,
+                () -> itemService.getItemAvailability(item.getId(), from, from));
+
+        assertEquals("Дата начала периода должна быть раньше даты его окончания.",
+                validationException.getMessage());
+    }
+}
@@ -0,0 +1,223 @@
+package ru.practicum.shareit.item.summary;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.DatabaseTest;
+import ru.practicum.shareit.booking.dto.NewRequestBookingDto;
+import ru.practicum.shareit.booking.enums.BookingStatuses;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ImprovedItemDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.ItemSummary;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemSummaryRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ItemSummaryServiceTest extends DatabaseTest {
+    @Autowired
+    ItemSummaryRepository summaryRepository;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    ItemSummaryService summaryService;
+
+    final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Test
+    void summaryIsUpdatedByBookingsAndCommentsTest() {
+        User owner = createUser("Linda");
+        User booker = createUser("Gorge");
+        ItemDto item = createItem(owner);
+        ItemSummary created = summaryRepository.findById(item.getId()).orElseThrow();
+        assertEquals("[]", created.getComments());
+        assertNull(created.getValidUntil());
+
+        saveBooking(item, booker, now.minusDays(3), now.minusDays(2));
+        bookingService.create(booker.getId(), new NewRequestBookingDto(item.getId(), now.plusDays(1),
+                now.plusDays(2)));
+        CommentDto comment = itemService.createComment(booker.getId(), item.getId(),
+                new CommentDto(null, null, null, "Отличная дрель", null));
+
+        ItemSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertEquals(now.minusDays(2), summary.getLastBookingEnd());
+        assertEquals(now.plusDays(1), summary.getNextBookingStart());
+        assertEquals(now.plusDays(1), summary.getValidUntil());
+        assertEquals(1, summary.getCommentCount());
+
+        ImprovedItemDto itemDto;
+        // Сам предмет берется из кэша второго уровня, в базу уходит только запрос сводки
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+            itemDto = itemService.getItemById(item.getId());
+            assertEquals(1, scope.count());
+        }
+        assertEquals(now.minusDays(2), itemDto.getLastBooking());
+        assertEquals(now.plusDays(1), itemDto.getNextBooking());
+        assertEquals(List.of(comment.getId()), itemDto.getComments().stream().map(CommentDto::getId).toList());
+        assertEquals("Gorge", itemDto.getComments().iterator().next().getAuthorName());
+    }
+
+    @Test
+    void outdatedSummaryIsRecalculatedOnReadTest() {
+        User owner = createUser("Anna");
+        User booker = createUser("Ivan");
+        ItemDto item = createItem(owner);
+        // Бронирование сохранено в обход сервиса, сводка о нем не знает, пока не устареет
+        saveBooking(item, booker, now.minusHours(2), now.minusHours(1));
+        ItemSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        summary.setValidUntil(now.minusSeconds(1));
+        summaryRepository.save(summary);
+
+        List<ImprovedItemDto> items = List.copyOf(itemService.getAllUserItems(owner.getId()));
+
+        assertEquals(now.minusHours(1), items.getFirst().getLastBooking());
+        ItemSummary recalculated = summaryRepository.findById(item.getId()).orElseThrow();
+        assertEquals(now.minusHours(1), recalculated.getLastBookingEnd());
+        assertNull(recalculated.getValidUntil());
+    }
+
+    @Test
+    void missingSummaryIsBuiltOnReadTest() {
+        User owner = createUser("Petr");
+        User booker = createUser("Olga");
+        ItemDto item = createItem(owner);
+        saveBooking(item, booker, now.minusDays(2), now.minusDays(1));
+        itemService.createComment(booker.getId(), item.getId(), new CommentDto(null, null, null, "Хорошая", null));
+        summaryRepository.deleteById(item.getId());
+
+        List<ImprovedItemDto> items = List.copyOf(itemService.getAllUserItems(owner.getId()));
+
+        assertEquals(now.minusDays(1), items.getFirst().getLastBooking());
+        assertEquals(1, items.getFirst().getComments().size());
+        assertTrue(summaryRepository.existsById(item.getId()));
+    }
+
+    @Test
+    void concurrentReadsOfMissingSummaryBothSucceedTest() throws Exception {
+        User owner = createUser("Roman");
+        List<ItemDto> items = List.of(createItem(owner), createItem(owner), createItem(owner));
+        for (ItemDto item : items) {
+            summaryRepository.deleteById(item.getId());
+
+            runConcurrently(
+                    () -> itemService.getAllUserItems(owner.getId()),
+                    () -> itemService.getAllUserItems(owner.getId()));
+        }
+
+        assertEquals(items.size(), summaryRepository.findAllById(items.stream().map(ItemDto::getId).toList()).size());
+    }
+
+    @Test
+    void renamedAuthorIsShownInCommentsTest() {
+        User owner = createUser("Sergey");
+        User booker = createUser("Nina");
+        ItemDto item = createItem(owner);
+        saveBooking(item, booker, now.minusDays(2), now.minusDays(1));
+        itemService.createComment(booker.getId(), item.getId(), new CommentDto(null, null, null, "Удобная", null));
+        itemService.getItemById(item.getId());
+
+        userService.update(booker.getId(), new UserDto(null, "Nina Petrova", null));
+
+        assertNull(summaryRepository.findById(item.getId()).orElseThrow().getComments());
+        assertEquals("Nina Petrova", itemService.getItemById(item.getId()).getComments().iterator().next()
+                .getAuthorName());
+        assertEquals(1, summaryRepository.findById(item.getId()).orElseThrow().getCommentCount());
+    }
+
+    @Test
+    void concurrentCommentsAreBothAddedToSummaryTest() throws Exception {
+        User owner = createUser("Oleg");
+        User first = createUser("Maria");
+        User second = createUser("Denis");
+        ItemDto item = createItem(owner);
+        saveBooking(item, first, now.minusDays(4), now.minusDays(3));
+        saveBooking(item, second, now.minusDays(2), now.minusDays(1));
+
+        runConcurrently(
+                () -> itemService.createComment(first.getId(), item.getId(),
+                        new CommentDto(null, null, null, "Первый", null)),
+                () -> itemService.createComment(second.getId(), item.getId(),
+                        new CommentDto(null, null, null, "Второй", null)));
+
+        ItemSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertEquals(2, summary.getCommentCount());
+        assertEquals(List.of("Второй", "Первый"), summaryService.getComments(summary).stream()
+                .map(CommentDto::getText)
+                .sorted()
+                .toList());
+    }
+
+    @Test
+    void concurrentBookingsAreBothCountedInSummaryTest() throws Exception {
+        User owner = createUser("Egor");
+        User first = createUser("Vera");
+        User second = createUser("Kirill");
+        ItemDto item = createItem(owner);
+
+        runConcurrently(
+                () -> bookingService.create(first.getId(), new NewRequestBookingDto(item.getId(), now.plusDays(3),
+                        now.plusDays(4))),
+                () -> bookingService.create(second.getId(), new NewRequestBookingDto(item.getId(), now.plusDays(1),
+                        now.plusDays(2))));
+
+        ItemSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertEquals(now.plusDays(1), summary.getNextBookingStart());
+        assertEquals(now.plusDays(1), summary.getValidUntil());
+    }
+
+    // Обе транзакции стартуют одновременно, чтобы изменения сводки пересеклись
+    private void runConcurrently(Runnable first, Runnable second) throws Exception {
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            List<Future<?>> futures = List.of(first, second).stream()
+                    .<Future<?>>map(action -> executor.submit(() -> {
+                        barrier.await();
+                        action.run();
+                        return null;
+                    }))
+                    .toList();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+
+    private void saveBooking(ItemDto item, User booker, LocalDateTime start, LocalDateTime end) {
+        bookingRepository.save(new Booking(null, start, end, itemRepository.getReferenceById(item.getId()), booker,
+                BookingStatuses.APPROVED));
+    }
+
+    private ItemDto createItem(User owner) {
+        return itemService.create(owner.getId(), new ItemDto(null, null, "Дрель", "Сверлит стены", true, null));
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.DatabaseTest;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Проверки существования пользователя не загружают его: одна выборка по первичному ключу без сущности
+@SpringBootTest
+@AutoConfigureMockMvc
+class EntityLoadCountingTest extends DatabaseTest {
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    ItemRequestService requestService;
+
+    @Autowired
+    BookingService bookingService;
+
+    @Test
+    void loadedEntitiesAreReturnedInHeaderTest() throws Exception {
+        User booker = createUser("linda");
+
+        mvc.perform(get("/bookings").header("X-Sharer-User-Id", booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SqlStatementCountingFilter.ENTITY_LOAD_HEADER, "0"))
+                .andExpect(header().string(SqlStatementCountingFilter.HEADER, "2"));
+    }
+
+    @Test
+    void userExistenceCheckDoesNotLoadUserTest() {
+        User user = createUser("gorge");
+
+        try (EntityLoadCounter.Scope entities = EntityLoadCounter.start();
+             SqlStatementCounter.Scope statements = SqlStatementCounter.start()) {
+            userService.checkUserExists(user.getId());
+            assertEquals(0, entities.count());
+            assertEquals(1, statements.count());
+        }
+    }
+
+    @Test
+    void readsAndCreatesDoNotLoadUserTest() {
+        User owner = createUser("anna");
+        User requester = createUser("ivan");
+
+        try (EntityLoadCounter.Scope entities = EntityLoadCounter.start()) {
+            itemService.create(owner.getId(), new ItemDto(null, null, "Дрель", "Сверлит стены", true, null));
+            itemService.getAllUserItems(owner.getId());
+            requestService.create(new ItemRequestDto(null, "Нужна палатка.", null, null), requester.getId());
+            requestService.getAllUserRequests(requester.getId());
+            requestService.getAllRequests(requester.getId(), null, null, 20);
+            bookingService.findAllBookingsByUser(requester.getId(), "ALL", null, null, 20);
+            bookingService.findAllBookingsByOwner(owner.getId(), "ALL", null, null, 20);
+            assertEquals(0, entities.count(User.class));
+        }
+    }
+
+    @Test
+    void entitiesFromSecondLevelCacheAreCountedTest() {
+        User user = createUser("petr");
+
+        try (EntityLoadCounter.Scope entities = EntityLoadCounter.start()) {
+            userService.getUserById(user.getId());
+            userService.getUserById(user.getId());
+            assertEquals(2, entities.count(User.class));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.DatabaseTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.BookingStatuses;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsAspectTest extends DatabaseTest {
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MockMvc mvc;
+
+    @Test
+    void serviceCallsAreTimedByOutcomeTest() {
+        User owner = createUser("Linda");
+        double created = serviceCount("ItemServiceImpl", "create", "ok");
+
+        itemService.create(owner.getId(), new ItemDto(null, null, "Газонокосилка", "Косит газон", true, null));
+        assertThrows(NotFoundException.class, () -> itemService.getItemById(-1L));
+
+        assertEquals(created + 1, serviceCount("ItemServiceImpl", "create", "ok"));
+        assertTrue(serviceCount("ItemServiceImpl", "getItemById", "not_found") >= 1);
+    }
+
+    @Test
+    void repositoryQueriesAreTimedAndRowsCountedTest() {
+        createUser("Gorge");
+        double rows = rows("UserRepository", "findAll");
+
+        List<User> users = userRepository.findAll();
+
+        Timer findAll = meterRegistry.find(MetricsAspect.REPOSITORY_TIMER)
+                .tags("repository", "UserRepository", "method", "findAll", "outcome", "ok")
+                .timer();
+        assertNotNull(findAll);
+        assertTrue(findAll.count() >= 1);
+        assertEquals(rows + users.size(), rows("UserRepository", "findAll"));
+    }
+
+    @Test
+    void countQueriesAreNotCountedAsRowsTest() {
+        userRepository.count();
+
+        assertNull(meterRegistry.find(MetricsAspect.REPOSITORY_ROWS)
+                .tags("repository", "UserRepository", "method", "count")
+                .counter());
+    }
+
+    @Test
+    void streamRowsAreCountedWhenStreamIsClosedTest() {
+        User owner = createUser("Ivan");
+        User booker = createUser("Petr");
+        Item item = itemRepository.save(new Item(null, "Дрель", "Сверлит стены", true, owner, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < 3; i++) {
+            bookingRepository.save(new Booking(null, start.plusDays(i * 2), start.plusDays(i * 2 + 1), item, booker,
+                    BookingStatuses.APPROVED));
+        }
+        double rows = rows("BookingRepository", "streamAllUserBookings");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<BookingDto> bookings = bookingRepository.streamAllUserBookings(booker.getId())) {
+                assertEquals(3, bookings.count());
+                assertEquals(rows, rows("BookingRepository", "streamAllUserBookings"));
+            }
+        });
+
+        assertEquals(rows + 3, rows("BookingRepository", "streamAllUserBookings"));
+    }
+
+    @Test
+    void metricsAreExposedInPrometheusFormatTest() throws Exception {
+        User user = createUser("Anna");
+        userService.getUserById(user.getId());
+
+        mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("shareit_service_seconds_count{")))
+                .andExpect(content().string(containsString("shareit_repository_rows_total{")));
+    }
+
+    private double serviceCount(String service, String method, String outcome) {
+        Timer timer = meterRegistry.find(MetricsAspect.SERVICE_TIMER)
+                .tags("service", service, "method", method, "outcome", outcome)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private double rows(String repository, String method) {
+        Counter counter = meterRegistry.find(MetricsAspect.REPOSITORY_ROWS)
+                .tags("repository", repository, "method", method)
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.DatabaseTest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SqlStatementCountingTest extends DatabaseTest {
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    ItemService itemService;
+
+    @Test
+    void statementCountIsReturnedInHeaderAndRecordedTest() throws Exception {
+        // Пользователь по id берется из кэша второго уровня, а поиск всегда идет в базу одним запросом
+        mvc.perform(get("/items/search").param("text", "дрель"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SqlStatementCountingFilter.HEADER, "1"));
+
+        DistributionSummary summary = meterRegistry.find(SqlStatementCountingFilter.STATEMENTS_SUMMARY)
+                .tags("method", "GET", "uri", "/items/search")
+                .summary();
+        assertNotNull(summary);
+        assertTrue(summary.count() >= 1);
+    }
+
+    @Test
+    void ownerItemListDoesNotQueryPerItemTest() {
+        User owner = createUser("Linda");
+        createItem(owner);
+
+        int singleItem = countStatements(() -> itemService.getAllUserItems(owner.getId()));
+        for (int i = 0; i < 5; i++) {
+            createItem(owner);
+        }
+        int sixItems = countStatements(() -> itemService.getAllUserItems(owner.getId()));
+
+        assertEquals(singleItem, sixItems);
+    }
+
+    @Test
+    void statementsOutsideScopeAreNotCountedTest() {
+        createUser("Linda");
+
+        assertNull(SqlStatementCounter.current());
+    }
+
+    @Test
+    void repeatedShapesAreReportedAboveThresholdTest() {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+            for (int i = 0; i < 3; i++) {
+                SqlStatementCounter.record("select c.id from comments c where c.item_id=?");
+            }
+            SqlStatementCounter.record("select i.id from items i where i.id in (?,?)");
+            SqlStatementCounter.record("select i.id from items i where i.id in (?, ?, ?)");
+
+            assertEquals(5, scope.count());
+            assertEquals(Map.of("select c.id from comments c where c.item_id=?", 3), scope.repeated(2));
+            assertEquals(Map.of("select c.id from comments c where c.item_id=?", 3,
+                    "select i.id from items i where i.id in (?)", 2), scope.repeated(1));
+        }
+    }
+
+    @Test
+    void nestedScopeIsCountedInParentTest() {
+        try (SqlStatementCounter.Scope outer = SqlStatementCounter.start()) {
+            try (SqlStatementCounter.Scope inner = SqlStatementCounter.start()) {
+                SqlStatementCounter.record("select 1");
+                assertEquals(1, inner.count());
+            }
+            assertEquals(outer, SqlStatementCounter.current());
+            assertEquals(1, outer.count());
+        }
+    }
+
+    private int countStatements(Runnable call) {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+            call.run();
+            return scope.count();
+        }
+    }
+
+    private void createItem(User owner) {
+        itemService.create(owner.getId(), new ItemDto(null, null, "Газонокосилка", "Косит газон", true, null));
+    }
+}
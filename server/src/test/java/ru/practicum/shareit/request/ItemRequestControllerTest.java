@@ -90,9 +90,13 @@ class ItemRequestControllerTest {
     @Test
     @SneakyThrows
     void getAllRequestsTest() {
-        when(requestService.getAllRequests(user.getId())).thenReturn(List.of(requestDto));
+        LocalDateTime cursorCreated = LocalDateTime.of(2026, 1, 1, 12, 0);
+        when(requestService.getAllRequests(user.getId(), cursorCreated, 7L, 5)).thenReturn(List.of(requestDto));
 
         String result = mvc.perform(get("/requests/all")
+                        .param("cursorCreated", "2026-01-01T12:00:00")
+                        .param("cursorId", "7")
+                        .param("size", "5")
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
                         .header("X-Sharer-User-Id", user.getId()))
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.request.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.DatabaseTest;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ItemRequestRepositoryTest extends DatabaseTest {
+    @Autowired
+    ItemRequestRepository itemRequestRepository;
+
+    @Test
+    void otherUsersRequestsArePagedByCreatedAndIdDescendingTest() {
+        User reader = createUser("Linda");
+        User author = createUser("Gorge");
+        // Все запросы теста новее уже сохраненных, три из них созданы в одно время
+        LocalDateTime created = LocalDateTime.now().plusYears(1).truncatedTo(ChronoUnit.SECONDS);
+        List<ItemRequest> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(itemRequestRepository.save(new ItemRequest(null, "Запрос " + i, author,
+                    i < 3 ? created : created.minusMinutes(i))));
+        }
+        itemRequestRepository.save(new ItemRequest(null, "Свой запрос", reader, created.plusMinutes(1)));
+        expected.sort(Comparator.comparing(ItemRequest::getCreated).thenComparing(ItemRequest::getId).reversed());
+
+        List<ItemRequest> pages = new ArrayList<>();
+        List<ItemRequest> page = itemRequestRepository.findOtherUsersRequests(reader.getId(), null, Long.MAX_VALUE,
+                Limit.of(2));
+        while (pages.size() < expected.size()) {
+            assertTrue(page.size() <= 2);
+            pages.addAll(page);
+            ItemRequest last = page.getLast();
+            page = itemRequestRepository.findOtherUsersRequests(reader.getId(), last.getCreated(), last.getId(),
+                    Limit.of(2));
+        }
+
+        assertEquals(expected.stream().map(ItemRequest::getId).toList(),
+                pages.stream().map(ItemRequest::getId).toList());
+    }
+}
@@ -5,6 +5,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.RequestAnswerDto;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoWithAnswers;
@@ -12,7 +16,7 @@ import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -20,8 +24,12 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,7 +38,7 @@ class ItemRequestServiceImplTest {
     private ItemRequestRepository requestRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private UserService userService;
 
     @Mock
     ItemRepository itemRepository;
@@ -60,7 +68,7 @@ class ItemRequestServiceImplTest {
 
     @Test
     void createRequestTest() {
-        when(userRepository.findById(author.getId())).thenReturn(Optional.of(author));
+        when(userService.getUserReference(author.getId())).thenReturn(author);
         when(requestRepository.save(any(ItemRequest.class))).thenReturn(itemRequest);
 
         ItemRequestDto createdRequest = requestService.create(itemRequestDto, author.getId());
@@ -72,26 +80,100 @@ class ItemRequestServiceImplTest {
     void getAllUserRequestsTest() {
         List<ItemRequestDtoWithAnswers> requests = List.of(ItemRequestMapper
                 .mapRequestToRequestDtoWithAnswers(itemRequest, Collections.emptyList()));
-        when(userRepository.findById(author.getId())).thenReturn(Optional.of(author));
         when(requestRepository.findAllByRequesterIdOrderByCreatedDesc(anyLong())).thenReturn(List.of(itemRequest));
-        when(itemRepository.findAllByRequestId(anyLong())).thenReturn(Collections.emptyList());
+        when(itemRepository.findAllByRequestIdIn(List.of(itemRequest.getId()))).thenReturn(Collections.emptyList());
 
         List<ItemRequestDtoWithAnswers> userRequests = requestService.getAllUserRequests(author.getId());
 
         assertEquals(requests, userRequests);
+        verify(userService, never()).checkUserExists(anyLong());
+    }
+
+    @Test
+    void getAllUserRequestsGroupsAnswersByRequestTest() {
+        ItemRequest otherRequest = new ItemRequest(2L, "Просьба добавить палатку.", author, LocalDateTime.now());
+        RequestAnswerDto detector = answer(10L, "Металлоискатель", itemRequest.getId());
+        RequestAnswerDto tent = answer(11L, "Палатка", otherRequest.getId());
+        RequestAnswerDto secondDetector = answer(12L, "Металлоискатель", itemRequest.getId());
+        when(requestRepository.findAllByRequesterIdOrderByCreatedDesc(author.getId()))
+                .thenReturn(List.of(otherRequest, itemRequest));
+        when(itemRepository.findAllByRequestIdIn(List.of(otherRequest.getId(), itemRequest.getId())))
+                .thenReturn(List.of(detector, tent, secondDetector));
+
+        List<ItemRequestDtoWithAnswers> userRequests = requestService.getAllUserRequests(author.getId());
+
+        assertEquals(List.of(
+                ItemRequestMapper.mapRequestToRequestDtoWithAnswers(otherRequest, List.of(tent)),
+                ItemRequestMapper.mapRequestToRequestDtoWithAnswers(itemRequest, List.of(detector, secondDetector))
+        ), userRequests);
+    }
+
+    @Test
+    void getAllUserRequestsWithoutRequestsTest() {
+        when(requestRepository.findAllByRequesterIdOrderByCreatedDesc(author.getId())).thenReturn(List.of());
+
+        assertEquals(List.of(), requestService.getAllUserRequests(author.getId()));
+        verify(userService).checkUserExists(author.getId());
+        verify(itemRepository, never()).findAllByRequestIdIn(any());
+    }
+
+    @Test
+    void getAllUserRequestsOfUnknownUserTest() {
+        when(requestRepository.findAllByRequesterIdOrderByCreatedDesc(anyLong())).thenReturn(List.of());
+        doThrow(new NotFoundException("Пользователь с id 99 не найден.")).when(userService).checkUserExists(99L);
+
+        assertThrows(NotFoundException.class, () -> requestService.getAllUserRequests(99L));
     }
 
     @Test
     void getAllRequestsTest() {
         List<ItemRequestDto> requests = List.of(ItemRequestMapper.mapRequestToRequestDto(itemRequest));
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(author));
-        when(requestRepository.findAllByRequesterIdNotOrderByCreatedDesc(anyLong())).thenReturn(List.of(itemRequest));
+        when(requestRepository.findOtherUsersRequests(author.getId(), null, Long.MAX_VALUE, Limit.of(20)))
+                .thenReturn(List.of(itemRequest));
 
-        List<ItemRequestDto> allRequests = requestService.getAllRequests(author.getId());
+        List<ItemRequestDto> allRequests = requestService.getAllRequests(author.getId(), null, null, 20);
 
         assertEquals(requests, allRequests);
     }
 
+    @Test
+    void getAllRequestsAfterCursorWithCappedSizeTest() {
+        LocalDateTime cursorCreated = LocalDateTime.now();
+        when(requestRepository.findOtherUsersRequests(author.getId(), cursorCreated, 5L, Limit.of(100)))
+                .thenReturn(List.of());
+
+        assertEquals(List.of(), requestService.getAllRequests(author.getId(), cursorCreated, 5L, 1000));
+    }
+
+    @Test
+    void getAllRequestsWithWrongSizeTest() {
+        assertThrows(ValidationException.class, () -> requestService.getAllRequests(author.getId(), null, null, 0));
+    }
+
+    private RequestAnswerDto answer(Long id, String name, Long requestId) {
+        return new RequestAnswerDto() {
+            @Override
+            public Long getRequestId() {
+                return requestId;
+            }
+
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Long getUserId() {
+                return 2L;
+            }
+        };
+    }
+
     @Test
     void getRequestByIdTest() {
         ItemRequestDtoWithAnswers request = ItemRequestMapper
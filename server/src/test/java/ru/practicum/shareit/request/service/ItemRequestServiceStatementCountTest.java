@@ -0,0 +1,94 @@
+package ru.practicum.shareit.request.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.DatabaseTest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+import ru.practicum.shareit.metrics.SqlStatementCountingFilter;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestDtoWithAnswers;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ItemRequestServiceStatementCountTest extends DatabaseTest {
+    @Autowired
+    ItemRequestService requestService;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    MockMvc mvc;
+
+    @Test
+    void userRequestsAreLoadedWithTwoStatementsTest() {
+        User requester = createUser("linda");
+        User owner = createUser("gorge");
+        createRequestWithAnswers(requester, owner, 1);
+
+        assertEquals(2, countStatements(requester));
+
+        for (int i = 0; i < 5; i++) {
+            createRequestWithAnswers(requester, owner, i);
+        }
+
+        assertEquals(2, countStatements(requester));
+        List<ItemRequestDtoWithAnswers> requests = requestService.getAllUserRequests(requester.getId());
+        assertEquals(6, requests.size());
+        assertEquals(List.of(4, 3, 2, 1, 0, 1), requests.stream().map(request -> request.getItems().size()).toList());
+    }
+
+    @Test
+    void userWithoutRequestsIsCheckedWithSecondStatementTest() {
+        User requester = createUser("anna");
+
+        assertEquals(2, countStatements(requester));
+    }
+
+    @Test
+    void answersAreSerializedWithoutRequestIdTest() throws Exception {
+        User requester = createUser("ivan");
+        User owner = createUser("petr");
+        createRequestWithAnswers(requester, owner, 1);
+
+        mvc.perform(get("/requests").header("X-Sharer-User-Id", requester.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SqlStatementCountingFilter.HEADER, "2"))
+                .andExpect(jsonPath("$[0].items", hasSize(1)))
+                .andExpect(jsonPath("$[0].items[0].name", is("Металлоискатель")))
+                .andExpect(jsonPath("$[0].items[0].userId", is(owner.getId()), Long.class))
+                .andExpect(jsonPath("$[0].items[0].requestId").doesNotExist());
+    }
+
+    private int countStatements(User requester) {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+            requestService.getAllUserRequests(requester.getId());
+            return scope.count();
+        }
+    }
+
+    private void createRequestWithAnswers(User requester, User owner, int answers) {
+        ItemRequestDto request = requestService.create(new ItemRequestDto(null, "Нужен металлоискатель.", null,
+                null), requester.getId());
+        for (int i = 0; i < answers; i++) {
+            itemService.create(owner.getId(), new ItemDto(null, null, "Металлоискатель", "Ищет металл", true,
+                    request.getId()));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.user.bloom;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountingBloomFilterTest {
+    private static final int ELEMENTS = 10_000;
+
+    private final CountingBloomFilter<Long> ids = new CountingBloomFilter<>(ELEMENTS, 0.01,
+            CountingBloomFilter::hash);
+
+    @Test
+    void addedElementsAreAlwaysFoundTest() {
+        LongStream.rangeClosed(1, ELEMENTS).forEach(ids::add);
+
+        assertTrue(LongStream.rangeClosed(1, ELEMENTS).allMatch(ids::mightContain));
+    }
+
+    @Test
+    void falsePositiveRateStaysNearConfiguredTest() {
+        LongStream.rangeClosed(1, ELEMENTS).forEach(ids::add);
+
+        long falsePositives = LongStream.rangeClosed(ELEMENTS + 1, ELEMENTS * 11L)
+                .filter(ids::mightContain)
+                .count();
+
+        double rate = (double) falsePositives / (ELEMENTS * 10L);
+        assertTrue(rate < 0.02, "Доля ложных срабатываний " + rate);
+        assertEquals(0.01, ids.expectedFalsePositiveRate(), 0.005);
+    }
+
+    @Test
+    void removedElementIsNotFoundTest() {
+        CountingBloomFilter<String> emails = new CountingBloomFilter<>(100, 0.01, CountingBloomFilter::hash);
+        emails.add("linda@gmail.com");
+        emails.add("gorge@gmail.com");
+
+        emails.remove("linda@gmail.com");
+
+        assertFalse(emails.mightContain("linda@gmail.com"));
+        assertTrue(emails.mightContain("gorge@gmail.com"));
+        assertEquals(0, new CountingBloomFilter<String>(100, 0.01, CountingBloomFilter::hash)
+                .expectedFalsePositiveRate());
+    }
+
+    @Test
+    void removalAfterOverflowKeepsElementTest() {
+        for (int i = 0; i < 20; i++) {
+            ids.add(1L);
+        }
+        for (int i = 0; i < 20; i++) {
+            ids.remove(1L);
+        }
+
+        // Насыщенные счетчики не уменьшаются, иначе удаление дало бы ложное "нет" для других элементов
+        assertTrue(ids.mightContain(1L));
+    }
+
+    @Test
+    void wrongParametersAreRejectedTest() {
+        assertThrows(IllegalArgumentException.class, () -> new CountingBloomFilter<Long>(0, 0.01,
+                CountingBloomFilter::hash));
+        assertThrows(IllegalArgumentException.class, () -> new CountingBloomFilter<Long>(100, 1,
+                CountingBloomFilter::hash));
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.user.bloom;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.DatabaseTest;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class UserBloomFilterTest extends DatabaseTest {
+    @Autowired
+    UserBloomFilter userBloomFilter;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void unknownUserIsRejectedWithoutDatabaseTest() {
+        double absent = checks("id", "absent");
+
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+            assertThrows(NotFoundException.class, () -> userService.getUserById(Long.MAX_VALUE));
+            assertEquals(0, scope.count());
+        }
+        assertEquals(absent + 1, checks("id", "absent"));
+    }
+
+    @Test
+    void filtersFollowCreateUpdateAndDeleteTest() {
+        User user = createUser("linda");
+        assertTrue(userBloomFilter.mightContainId(user.getId()));
+        assertTrue(userBloomFilter.mightContainEmail(user.getEmail()));
+
+        String oldEmail = user.getEmail();
+        String newEmail = "margo@gmail.com";
+        // Новый email свободен по фильтру, поэтому обновление не ищет его в базе
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.start()) {
+            userService.update(user.getId(), new UserDto(null, null, newEmail));
+            assertTrue(scope.repeated(0).keySet().stream().noneMatch(sql -> sql.contains("where u1_0.email=?")));
+        }
+        assertTrue(userBloomFilter.mightContainEmail(newEmail));
+        assertFalse(userBloomFilter.mightContainEmail(oldEmail));
+
+        userService.delete(user.getId());
+        assertFalse(userBloomFilter.mightContainId(user.getId()));
+        assertFalse(userBloomFilter.mightContainEmail(newEmail));
+    }
+
+    @Test
+    void falsePositiveRateIsPublishedTest() {
+        assertNotNull(meterRegistry.find(UserBloomFilter.FALSE_POSITIVE_RATE).tags("filter", "id").gauge());
+        assertNotNull(meterRegistry.find(UserBloomFilter.EXPECTED_FALSE_POSITIVE_RATE).tags("filter", "email")
+                .gauge());
+    }
+
+    private double checks(String filter, String result) {
+        Counter counter = meterRegistry.find(UserBloomFilter.CHECKS_COUNTER)
+                .tags("filter", filter, "result", result)
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
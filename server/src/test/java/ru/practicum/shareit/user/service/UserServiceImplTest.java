@@ -5,16 +5,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.practicum.shareit.exception.DuplicatedDataException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.bloom.UserBloomFilter;
 import ru.practicum.shareit.user.dto.UserDto;
-import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.event.UserCreatedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.event.UserEmailChangedEvent;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,6 +27,12 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserBloomFilter userBloomFilter;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -40,41 +51,73 @@ class UserServiceImplTest {
 
         assertEquals(newUser, savedUser);
         verify(userRepository).save(newUser);
+        verify(eventPublisher).publishEvent(any(UserCreatedEvent.class));
     }
 
     @Test
     void updateUserTest() {
         User newUser = new User(1L, "Gorge", "gorge@gmail.com");
-        when(userService.create(userDto)).thenReturn(newUser);
-        User savedUser = userService.create(userDto);
-
         UserDto changedUser = new UserDto(
                 null,
                 "Margo",
                 "margo@gmail.com"
         );
 
-        when(userRepository.findById(savedUser.getId())).thenReturn(Optional.of(newUser));
-        when(userService.update(savedUser.getId(), changedUser)).thenReturn(
-                UserMapper.mapUserDtoToUser(savedUser.getId(), changedUser));
+        when(userBloomFilter.mightContainId(newUser.getId())).thenReturn(true);
+        when(userRepository.findById(newUser.getId())).thenReturn(Optional.of(newUser));
+        when(userRepository.save(newUser)).thenReturn(newUser);
 
-        User updatedUser = userService.update(savedUser.getId(), changedUser);
+        User updatedUser = userService.update(newUser.getId(), changedUser);
 
         assertNotNull(updatedUser);
         assertEquals("Margo", updatedUser.getName());
         assertEquals("margo@gmail.com", updatedUser.getEmail());
+        // Фильтр Блума исключил новый email, поэтому занятость не проверяется в базе
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(eventPublisher).publishEvent(any(UserEmailChangedEvent.class));
+    }
+
+    @Test
+    void updateUserWhenEmailIsFreeAfterFilterFalsePositiveTest() {
+        User newUser = new User(1L, "Gorge", "gorge@gmail.com");
+        when(userBloomFilter.mightContainId(newUser.getId())).thenReturn(true);
+        when(userBloomFilter.mightContainEmail("margo@gmail.com")).thenReturn(true);
+        when(userRepository.findById(newUser.getId())).thenReturn(Optional.of(newUser));
+        when(userRepository.findByEmail("margo@gmail.com")).thenReturn(Optional.empty());
+        when(userRepository.save(newUser)).thenReturn(newUser);
+
+        User updatedUser = userService.update(newUser.getId(), new UserDto(null, null, "margo@gmail.com"));
+
+        assertEquals("margo@gmail.com", updatedUser.getEmail());
+        verify(userBloomFilter).recordEmailFalsePositive();
+    }
+
+    @Test
+    void updateUserWithSameEmailDoesNotCheckEmailTest() {
+        User newUser = new User(1L, "Gorge", "gorge@gmail.com");
+        when(userBloomFilter.mightContainId(newUser.getId())).thenReturn(true);
+        when(userRepository.findById(newUser.getId())).thenReturn(Optional.of(newUser));
+        when(userRepository.save(newUser)).thenReturn(newUser);
+
+        userService.update(newUser.getId(), userDto);
+
+        verifyNoMoreInteractions(userBloomFilter);
+        verify(userRepository, never()).findByEmail(anyString());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
     void updateUserWhenEmailExistsThenThrowDuplicatedDataExceptionTest() {
         User newUser = new User(1L, "Gorge", "gorge@gmail.com");
-        User changedUser = new User(1L, "Margo", "margo@gmail.com");
+        User changedUser = new User(2L, "Margo", "margo@gmail.com");
 
+        when(userBloomFilter.mightContainId(anyLong())).thenReturn(true);
+        when(userBloomFilter.mightContainEmail(anyString())).thenReturn(true);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(newUser));
         when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(changedUser));
 
         DuplicatedDataException duplicatedDataException = assertThrows(DuplicatedDataException.class,
-                () -> userService.update(newUser.getId(), userDto));
+                () -> userService.update(newUser.getId(), new UserDto(null, null, changedUser.getEmail())));
 
         assertEquals(duplicatedDataException.getMessage(), "Ошибка при обновлении данных пользователя. " +
                 "Email уже существует.");
@@ -83,12 +126,10 @@ class UserServiceImplTest {
     @Test
     void getUserByIdWhenFountTest() {
         User newUser = new User(1L, "Gorge", "gorge@gmail.com");
-        when(userService.create(userDto)).thenReturn(newUser);
-        User savedUser = userService.create(userDto);
-
-        when(userRepository.findById(savedUser.getId())).thenReturn(Optional.of(newUser));
+        when(userBloomFilter.mightContainId(newUser.getId())).thenReturn(true);
+        when(userRepository.findById(newUser.getId())).thenReturn(Optional.of(newUser));
 
-        User userToCheck = userService.getUserById(savedUser.getId());
+        User userToCheck = userService.getUserById(newUser.getId());
 
         assertEquals(newUser, userToCheck);
     }
@@ -96,18 +137,75 @@ class UserServiceImplTest {
     @Test
     void getUserByIdWhenNotFountTest() {
         Long userId = 0L;
+        when(userBloomFilter.mightContainId(userId)).thenReturn(true);
         when(userRepository.findById(userId)).thenReturn(Optional.empty());
 
         NotFoundException userNotFoundException = assertThrows(NotFoundException.class,
                 () -> userService.getUserById(userId));
 
         assertEquals(userNotFoundException.getMessage(), "Пользователь с id " + userId + " не найден.");
+        verify(userBloomFilter).recordIdFalsePositive();
+    }
+
+    @Test
+    void getUserByIdWhenFilterExcludesIdThenSkipDatabaseTest() {
+        Long userId = 0L;
+
+        NotFoundException userNotFoundException = assertThrows(NotFoundException.class,
+                () -> userService.getUserById(userId));
+
+        assertEquals(userNotFoundException.getMessage(), "Пользователь с id " + userId + " не найден.");
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void checkUserExistsTest() {
+        when(userBloomFilter.mightContainId(1L)).thenReturn(true);
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        userService.checkUserExists(1L);
+
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void checkUserExistsWhenNotFoundTest() {
+        when(userBloomFilter.mightContainId(1L)).thenReturn(true);
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        NotFoundException userNotFoundException = assertThrows(NotFoundException.class,
+                () -> userService.checkUserExists(1L));
+
+        assertEquals("Пользователь с id 1 не найден.", userNotFoundException.getMessage());
+        verify(userBloomFilter).recordIdFalsePositive();
+    }
+
+    @Test
+    void checkUserExistsWhenFilterExcludesIdThenSkipDatabaseTest() {
+        assertThrows(NotFoundException.class, () -> userService.checkUserExists(0L));
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void getUserReferenceTest() {
+        User reference = new User(1L, null, null);
+        when(userBloomFilter.mightContainId(1L)).thenReturn(true);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(reference);
+
+        assertSame(reference, userService.getUserReference(1L));
+        verify(userRepository, never()).findById(anyLong());
     }
 
     @Test
     void delete() {
-        long userId = 0L;
-        userService.delete(userId);
-        verify(userRepository, times(1)).deleteById(userId);
+        User user = new User(1L, "Gorge", "gorge@gmail.com");
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        userService.delete(user.getId());
+
+        verify(userRepository, times(1)).delete(user);
+        verify(eventPublisher).publishEvent(any(UserDeletedEvent.class));
     }
-}
\ No newline at end of file
+}